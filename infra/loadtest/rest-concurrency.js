@@ -0,0 +1,90 @@
+// k6 load test for the blocking REST paths: order creation (Postgres) and
+// order lookup (Cassandra). Ramps concurrent virtual users until latency or
+// errors break down, to find each service's concurrency ceiling.
+//
+// Run it twice against the same hardware and compare:
+//   VIRTUAL_THREADS=false  -> Tomcat platform pool (200 threads)
+//   VIRTUAL_THREADS=true   -> one virtual thread per request
+//
+//   k6 run infra/loadtest/rest-concurrency.js
+//   k6 run -e ORDER_URL=http://order:8081 -e QUERY_URL=http://query:8080 -e MAX_VUS=4000 infra/loadtest/rest-concurrency.js
+//
+// ITEMS sets the line items per order (e.g. 1, 10, 100); run once per
+// orders.items.layout (TABLE / JSONB) to compare insert throughput.
+//
+// While it runs, watch jvm_threads_virtual_pinned_seconds_count and
+// hikaricp_connections_pending on /actuator/prometheus.
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { SharedArray } from 'k6/data';
+
+const ORDER_URL = __ENV.ORDER_URL || 'http://localhost:8081';
+const QUERY_URL = __ENV.QUERY_URL || 'http://localhost:8080';
+const MAX_VUS = parseInt(__ENV.MAX_VUS || '2000');
+const ITEMS = parseInt(__ENV.ITEMS || '1');
+
+const stages = [
+    { duration: '30s', target: Math.round(MAX_VUS / 10) },
+    { duration: '1m', target: Math.round(MAX_VUS / 4) },
+    { duration: '1m', target: Math.round(MAX_VUS / 2) },
+    { duration: '1m', target: MAX_VUS },
+    { duration: '30s', target: 0 },
+];
+
+export const options = {
+    scenarios: {
+        create_orders: {
+            executor: 'ramping-vus',
+            exec: 'createOrder',
+            stages: stages,
+        },
+        read_orders: {
+            executor: 'ramping-vus',
+            exec: 'readOrder',
+            stages: stages,
+        },
+    },
+    thresholds: {
+        'http_req_duration{scenario:create_orders}': ['p(99)<1000'],
+        'http_req_duration{scenario:read_orders}': ['p(99)<500'],
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+const skus = new SharedArray('skus', () => ['SKU-001', 'SKU-002', 'SKU-003', 'SKU-004']);
+
+function postOrder(customerId, sku) {
+    const body = JSON.stringify({
+        customerId: customerId,
+        currency: 'USD',
+        items: Array.from({ length: ITEMS }, () => ({ itemId: sku, quantity: 1, unitPrice: 25.0 })),
+    });
+    return http.post(`${ORDER_URL}/api/orders`, body, {
+        headers: { 'Content-Type': 'application/json' },
+    });
+}
+
+// Seed orders for the read scenario; they reach the read model before the ramp peaks
+export function setup() {
+    const orderIds = [];
+    for (let i = 0; i < 200; i++) {
+        const res = postOrder(`seed-${i}`, skus[i % skus.length]);
+        if (res.status === 201) {
+            orderIds.push(res.json('orderId'));
+        }
+    }
+    return { orderIds: orderIds };
+}
+
+export function createOrder() {
+    const res = postOrder(`cust-${__VU}`, skus[__ITER % skus.length]);
+    check(res, { 'order created': (r) => r.status === 201 });
+}
+
+export function readOrder(data) {
+    const id = data.orderIds[(__VU + __ITER) % data.orderIds.length];
+    const res = http.get(`${QUERY_URL}/api/orders/${id}`);
+    // 404 while the read model catches up still costs a full Cassandra round trip
+    check(res, { 'order read': (r) => r.status === 200 || r.status === 404 });
+}
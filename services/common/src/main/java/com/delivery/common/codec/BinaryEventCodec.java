@@ -0,0 +1,152 @@
+package com.delivery.common.codec;
+
+import com.delivery.common.event.EventEnvelope;
+
+import java.io.IOException;
+
+/**
+ * Compact binary frame for {@link EventEnvelope}.
+ *
+ * <pre>
+ * MAGIC | schemaVersion (varint) | header fields (layout per schemaVersion) | payload
+ * </pre>
+ *
+ * The frame layout is keyed off the envelope's {@code schemaVersion}, which is
+ * written right after the marker byte so a decoder can pick the layout before
+ * reading anything else. Layout v1 stores header strings length-prefixed, instants
+ * as epoch seconds + nanos, and the payload as Smile (binary JSON) filling the
+ * rest of the frame. Field names never repeat and timestamps are a handful of
+ * bytes instead of 24-character ISO strings.
+ */
+public class BinaryEventCodec implements EventCodec {
+
+    /** First byte of every binary frame. Not a legal first byte of a JSON document. */
+    public static final byte MAGIC = (byte) 0xD1;
+
+    private static final int INITIAL_FRAME_CAPACITY = 256;
+
+    // A pooled buffer that grew past this (one huge event) is dropped rather than kept per thread
+    private static final int MAX_POOLED_CAPACITY = 64 * 1024;
+
+    private final EventCodecRegistry registry;
+    private final ThreadLocal<FrameWriter> pooledFrames;
+
+    public BinaryEventCodec(EventCodecRegistry registry) {
+        this(registry, true);
+    }
+
+    /**
+     * @param pooledBuffers reuse one frame buffer per platform thread instead of
+     *                      allocating a new one for every event. Virtual threads
+     *                      always allocate: each one lives for a single request,
+     *                      so a per-thread buffer would never be reused
+     */
+    public BinaryEventCodec(EventCodecRegistry registry, boolean pooledBuffers) {
+        this.registry = registry;
+        this.pooledFrames = pooledBuffers
+                ? ThreadLocal.withInitial(() -> new FrameWriter(INITIAL_FRAME_CAPACITY))
+                : null;
+    }
+
+    @Override
+    public EventFormat format() {
+        return EventFormat.BINARY;
+    }
+
+    @Override
+    public byte[] encode(EventEnvelope<?> envelope) {
+        int schemaVersion = schemaVersionOf(envelope);
+        FrameWriter out = acquireFrame();
+        out.writeByte(MAGIC);
+        out.writeVarInt(schemaVersion);
+
+        switch (schemaVersion) {
+            case 1 -> writeV1(out, envelope);
+            default -> throw new EventCodecException(
+                    "No binary layout for schemaVersion " + schemaVersion);
+        }
+        // The only allocation left: the exact-size value handed to the producer
+        byte[] frame = out.toByteArray();
+        releaseFrame(out);
+        return frame;
+    }
+
+    @Override
+    public LazyEnvelope read(byte[] data) {
+        FrameReader in = new FrameReader(data, 0, data.length);
+        if ((byte) in.readByte() != MAGIC) {
+            throw new EventCodecException("Not a binary event frame");
+        }
+        int schemaVersion = in.readVarInt();
+
+        return switch (schemaVersion) {
+            case 1 -> readV1(in, data);
+            default -> throw new EventCodecException(
+                    "No binary layout for schemaVersion " + schemaVersion);
+        };
+    }
+
+    private void writeV1(FrameWriter out, EventEnvelope<?> envelope) {
+        out.writeString(envelope.getEventId());
+        out.writeString(envelope.getEventType());
+        out.writeInstant(envelope.getOccurredAt());
+        out.writeInstant(envelope.getProducedAt());
+        out.writeString(envelope.getOrderId());
+        out.writeString(envelope.getCorrelationId());
+        out.writeString(envelope.getProducer());
+
+        // Payload runs to the end of the frame; no payload means no bytes.
+        // Smile is generated straight into the frame, not into a separate array
+        if (envelope.getPayload() != null) {
+            try {
+                registry.smilePayloadWriter(envelope.getEventType())
+                        .writeValue(out, envelope.getPayload());
+            } catch (IOException e) {
+                throw new EventCodecException(
+                        "Failed to encode " + envelope.getEventType() + " payload", e);
+            }
+        }
+    }
+
+    private LazyEnvelope readV1(FrameReader in, byte[] data) {
+        LazyEnvelope envelope = new LazyEnvelope(data, EventFormat.BINARY, registry);
+        envelope.schemaVersion = 1;
+        envelope.eventId = in.readString();
+        envelope.eventType = in.readString();
+        envelope.occurredAt = in.readInstant();
+        envelope.producedAt = in.readInstant();
+        envelope.orderId = in.readString();
+        envelope.correlationId = in.readString();
+        envelope.producer = in.readString();
+
+        // Headers are all in front of the payload, so it is never touched here
+        if (in.remaining() > 0) {
+            envelope.payloadOffset = in.position();
+            envelope.payloadLength = in.remaining();
+        }
+        return envelope;
+    }
+
+    private FrameWriter acquireFrame() {
+        if (!pooling()) {
+            return new FrameWriter(INITIAL_FRAME_CAPACITY);
+        }
+        FrameWriter frame = pooledFrames.get();
+        frame.reset();
+        return frame;
+    }
+
+    private void releaseFrame(FrameWriter frame) {
+        if (pooling() && frame.capacity() > MAX_POOLED_CAPACITY) {
+            pooledFrames.remove();
+        }
+    }
+
+    private boolean pooling() {
+        return pooledFrames != null && !Thread.currentThread().isVirtual();
+    }
+
+    private static int schemaVersionOf(EventEnvelope<?> envelope) {
+        return envelope.getSchemaVersion() != null ? envelope.getSchemaVersion() : 1;
+    }
+}
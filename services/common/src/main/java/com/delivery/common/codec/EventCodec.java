@@ -0,0 +1,19 @@
+package com.delivery.common.codec;
+
+import com.delivery.common.event.EventEnvelope;
+
+/**
+ * Encodes {@link EventEnvelope}s to Kafka record values and reads them back.
+ *
+ * Reading is payload-agnostic and lazy: {@link #read(byte[])} extracts the
+ * envelope headers and leaves the payload unparsed until the listener asks for
+ * it, regardless of the wire format the producer picked.
+ */
+public interface EventCodec {
+
+    EventFormat format();
+
+    byte[] encode(EventEnvelope<?> envelope);
+
+    LazyEnvelope read(byte[] data);
+}
@@ -0,0 +1,13 @@
+package com.delivery.common.codec;
+
+/** Thrown when an event cannot be encoded or a record value cannot be decoded. */
+public class EventCodecException extends RuntimeException {
+
+    public EventCodecException(String message) {
+        super(message);
+    }
+
+    public EventCodecException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,121 @@
+package com.delivery.common.codec;
+
+import com.delivery.common.event.EventEnvelope;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Binds event types to typed payload classes and holds the readers and
+ * writers for them.
+ *
+ * Each service registers the payloads it reads and writes at startup:
+ * <pre>
+ * new EventCodecRegistry(objectMapper)
+ *         .register(EventTypes.ORDER_CREATED, OrderCreatedPayload.class);
+ * </pre>
+ * Registration builds the {@link ObjectReader}s and {@link ObjectWriter}s once,
+ * which resolves (and with Blackbird, generates accessors for) the
+ * (de)serializers up front. On the hot path a payload is bound straight from
+ * the record bytes to its class — no intermediate JsonNode tree and no
+ * text-to-number round trips.
+ *
+ * Payload readers ignore unknown properties: consumers keep their own mirror
+ * of each payload and must not break when a producer adds a field.
+ */
+public class EventCodecRegistry {
+
+    private final ObjectMapper jsonMapper;
+    private final ObjectMapper smileMapper;
+    private final Map<String, Binding> bindings = new ConcurrentHashMap<>();
+
+    // Used for event types nobody registered, and for untyped (tree) reads
+    private final ObjectWriter jsonEnvelopeWriter;
+    private final ObjectWriter smilePayloadWriter;
+    private final ObjectReader jsonTreeReader;
+    private final ObjectReader smileTreeReader;
+
+    public EventCodecRegistry(ObjectMapper jsonMapper) {
+        this(jsonMapper, EventMappers.smile());
+    }
+
+    public EventCodecRegistry(ObjectMapper jsonMapper, ObjectMapper smileMapper) {
+        this.jsonMapper = jsonMapper;
+        this.smileMapper = smileMapper;
+        this.jsonEnvelopeWriter = jsonMapper.writer();
+        this.smilePayloadWriter = smileMapper.writer();
+        // Payloads are parsed out of the middle of an envelope; whatever follows is not ours
+        this.jsonTreeReader = jsonMapper.reader().without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+        this.smileTreeReader = smileMapper.reader();
+    }
+
+    /** Binds {@code eventType} to {@code payloadType}. Returns {@code this} for chaining. */
+    public EventCodecRegistry register(String eventType, Class<?> payloadType) {
+        JavaType envelopeType = jsonMapper.getTypeFactory()
+                .constructParametricType(EventEnvelope.class, payloadType);
+
+        bindings.put(eventType, new Binding(
+                payloadType,
+                payloadReader(jsonMapper, payloadType),
+                payloadReader(smileMapper, payloadType),
+                jsonMapper.writerFor(envelopeType),
+                smileMapper.writerFor(payloadType)));
+        return this;
+    }
+
+    public ObjectMapper jsonMapper() {
+        return jsonMapper;
+    }
+
+    public ObjectMapper smileMapper() {
+        return smileMapper;
+    }
+
+    /** Writer for a whole envelope of {@code eventType} as JSON. */
+    ObjectWriter jsonEnvelopeWriter(String eventType) {
+        Binding binding = bindings.get(eventType);
+        return binding != null ? binding.jsonEnvelopeWriter : jsonEnvelopeWriter;
+    }
+
+    /** Writer for just the payload of {@code eventType} as Smile. */
+    ObjectWriter smilePayloadWriter(String eventType) {
+        Binding binding = bindings.get(eventType);
+        return binding != null ? binding.smilePayloadWriter : smilePayloadWriter;
+    }
+
+    /**
+     * Reader binding a payload of {@code eventType} to {@code type}. Falls back to
+     * an ad-hoc reader if the event type was registered with a different class
+     * or not at all.
+     */
+    ObjectReader payloadReader(String eventType, Class<?> type, EventFormat format) {
+        Binding binding = bindings.get(eventType);
+        if (binding != null && binding.payloadType == type) {
+            return format == EventFormat.BINARY ? binding.smileReader : binding.jsonReader;
+        }
+        return payloadReader(format == EventFormat.BINARY ? smileMapper : jsonMapper, type);
+    }
+
+    ObjectReader treeReader(EventFormat format) {
+        return format == EventFormat.BINARY ? smileTreeReader : jsonTreeReader;
+    }
+
+    private static ObjectReader payloadReader(ObjectMapper mapper, Class<?> type) {
+        return mapper.readerFor(type)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                .without(DeserializationFeature.FAIL_ON_TRAILING_TOKENS);
+    }
+
+    private record Binding(
+            Class<?> payloadType,
+            ObjectReader jsonReader,
+            ObjectReader smileReader,
+            ObjectWriter jsonEnvelopeWriter,
+            ObjectWriter smilePayloadWriter) {
+    }
+}
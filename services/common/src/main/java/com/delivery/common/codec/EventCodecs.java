@@ -0,0 +1,60 @@
+package com.delivery.common.codec;
+
+import com.delivery.common.event.EventEnvelope;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Entry point publishers and listeners use instead of an ObjectMapper.
+ *
+ * Producers pick a codec per topic: topics listed as binary get
+ * {@link BinaryEventCodec}, everything else stays JSON. Consumers never need
+ * that configuration — {@link #read(byte[])} sniffs the format of each
+ * record, so a topic can carry both formats while producers are switched
+ * over one at a time.
+ *
+ * The whole path is byte-native: publishers hand the encoded {@code byte[]}
+ * to {@code ByteArraySerializer} and listeners parse the {@code byte[]} that
+ * {@code ByteArrayDeserializer} returns (the fetched bytes, not a copy). No
+ * record value ever exists as a {@code String}.
+ */
+public class EventCodecs {
+
+    private final JsonEventCodec json;
+    private final BinaryEventCodec binary;
+    private final Set<String> binaryTopics;
+
+    public EventCodecs(EventCodecRegistry registry, Collection<String> binaryTopics) {
+        this(registry, binaryTopics, true);
+    }
+
+    /**
+     * @param pooledBuffers whether binary frames are encoded into a reused
+     *                      per-thread buffer; turn off to compare GC pressure
+     */
+    public EventCodecs(EventCodecRegistry registry, Collection<String> binaryTopics,
+            boolean pooledBuffers) {
+        this.json = new JsonEventCodec(registry);
+        this.binary = new BinaryEventCodec(registry, pooledBuffers);
+        this.binaryTopics = Set.copyOf(binaryTopics);
+    }
+
+    /** The codec producers should use when publishing to {@code topic}. */
+    public EventCodec forTopic(String topic) {
+        return binaryTopics.contains(topic) ? binary : json;
+    }
+
+    public EventCodec forFormat(EventFormat format) {
+        return format == EventFormat.BINARY ? binary : json;
+    }
+
+    public byte[] encode(String topic, EventEnvelope<?> envelope) {
+        return forTopic(topic).encode(envelope);
+    }
+
+    /** Reads the envelope headers of a record value; the payload is parsed on demand. */
+    public LazyEnvelope read(byte[] data) {
+        return forFormat(EventFormat.detect(data)).read(data);
+    }
+}
@@ -0,0 +1,19 @@
+package com.delivery.common.codec;
+
+/**
+ * Wire formats an event value can be encoded in.
+ *
+ * JSON is the original text contract. BINARY is the compact frame written by
+ * {@link BinaryEventCodec}; its first byte is a marker that can never start a
+ * JSON document, so consumers can tell the two apart by looking at the bytes
+ * alone. This is what lets a topic carry mixed traffic during a rollout.
+ */
+public enum EventFormat {
+    JSON,
+    BINARY;
+
+    /** Sniffs the format of an encoded event from its first byte. */
+    public static EventFormat detect(byte[] data) {
+        return data.length > 0 && data[0] == BinaryEventCodec.MAGIC ? BINARY : JSON;
+    }
+}
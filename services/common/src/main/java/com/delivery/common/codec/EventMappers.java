@@ -0,0 +1,38 @@
+package com.delivery.common.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+/**
+ * The one ObjectMapper configuration shared by every service.
+ *
+ * - Java time support, with dates written as ISO strings
+ * - Blackbird, which replaces reflective getter/setter calls with accessors
+ *   generated through LambdaMetafactory the first time a type is bound
+ *
+ * The JSON and Smile mappers are configured identically, so a payload maps to
+ * the same values whichever wire format it arrived in.
+ */
+public final class EventMappers {
+
+    private EventMappers() {
+    } // Prevent instantiation
+
+    public static ObjectMapper json() {
+        return configure(new ObjectMapper());
+    }
+
+    public static ObjectMapper smile() {
+        return configure(new ObjectMapper(new SmileFactory()));
+    }
+
+    private static ObjectMapper configure(ObjectMapper mapper) {
+        mapper.registerModule(new JavaTimeModule());
+        mapper.registerModule(new BlackbirdModule());
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        return mapper;
+    }
+}
@@ -0,0 +1,82 @@
+package com.delivery.common.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/** Reads the primitive encodings written by {@link FrameWriter}. */
+class FrameReader {
+
+    private final byte[] buf;
+    private final int limit;
+    private int pos;
+
+    FrameReader(byte[] buf, int offset, int length) {
+        this.buf = buf;
+        this.pos = offset;
+        this.limit = offset + length;
+    }
+
+    int readByte() {
+        require(1);
+        return buf[pos++] & 0xFF;
+    }
+
+    int readVarInt() {
+        int result = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = readByte();
+            result |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new EventCodecException("Malformed varint at offset " + pos);
+    }
+
+    long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new EventCodecException("Malformed varlong at offset " + pos);
+    }
+
+    String readString() {
+        int length = readVarInt() - 1;
+        if (length < 0) {
+            return null;
+        }
+        require(length);
+        String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+        pos += length;
+        return value;
+    }
+
+    Instant readInstant() {
+        if (readByte() == 0) {
+            return null;
+        }
+        long seconds = readVarLong();
+        int nanos = readVarInt();
+        return Instant.ofEpochSecond(seconds, nanos);
+    }
+
+    int position() {
+        return pos;
+    }
+
+    int remaining() {
+        return limit - pos;
+    }
+
+    private void require(int n) {
+        if (pos + n > limit) {
+            throw new EventCodecException("Truncated binary frame: needed " + n
+                    + " bytes at offset " + pos + ", frame ends at " + limit);
+        }
+    }
+}
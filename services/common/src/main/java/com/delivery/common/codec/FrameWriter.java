@@ -0,0 +1,105 @@
+package com.delivery.common.codec;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the primitive encodings used by binary frames:
+ * unsigned varints, zig-zag varlongs, length-prefixed UTF-8 strings and
+ * second/nano instants. Nullable values are prefixed so null survives a round trip.
+ *
+ * It is also an {@link OutputStream}, so a Jackson generator can write the
+ * payload straight into the frame, and it can be {@link #reset()} and reused
+ * across frames.
+ */
+class FrameWriter extends OutputStream {
+
+    private byte[] buf;
+    private int pos;
+
+    FrameWriter(int initialCapacity) {
+        this.buf = new byte[initialCapacity];
+    }
+
+    @Override
+    public void write(int b) {
+        writeByte(b);
+    }
+
+    @Override
+    public void write(byte[] bytes, int off, int len) {
+        ensure(len);
+        System.arraycopy(bytes, off, buf, pos, len);
+        pos += len;
+    }
+
+    void writeByte(int b) {
+        ensure(1);
+        buf[pos++] = (byte) b;
+    }
+
+    void writeVarInt(int value) {
+        ensure(5);
+        while ((value & ~0x7F) != 0) {
+            buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buf[pos++] = (byte) value;
+    }
+
+    void writeVarLong(long value) {
+        ensure(10);
+        long zigzag = (value << 1) ^ (value >> 63);
+        while ((zigzag & ~0x7FL) != 0) {
+            buf[pos++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buf[pos++] = (byte) zigzag;
+    }
+
+    /** Length is written as {@code bytes + 1}; a zero length means null. */
+    void writeString(String value) {
+        if (value == null) {
+            writeVarInt(0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length + 1);
+        writeBytes(bytes);
+    }
+
+    void writeInstant(Instant value) {
+        if (value == null) {
+            writeByte(0);
+            return;
+        }
+        writeByte(1);
+        writeVarLong(value.getEpochSecond());
+        writeVarInt(value.getNano());
+    }
+
+    void writeBytes(byte[] bytes) {
+        write(bytes, 0, bytes.length);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buf, pos);
+    }
+
+    /** Empties the buffer, keeping its backing array for the next frame. */
+    void reset() {
+        pos = 0;
+    }
+
+    int capacity() {
+        return buf.length;
+    }
+
+    private void ensure(int extra) {
+        if (pos + extra > buf.length) {
+            buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + extra));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.delivery.common.codec;
+
+import com.delivery.common.event.EventEnvelope;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+
+/**
+ * The original JSON text contract, written as UTF-8 bytes.
+ * Byte-for-byte identical to what the publishers produced before codecs existed.
+ *
+ * Reading walks the top-level object token by token, keeping only the header
+ * fields. Field names come from Jackson's symbol table, so routing on them
+ * allocates nothing. When {@code payload} is the last field (the order the
+ * publishers write) and every header has been seen, scanning stops before the
+ * payload's tokens are even looked at.
+ */
+public class JsonEventCodec implements EventCodec {
+
+    private static final int EVENT_ID = 1;
+    private static final int EVENT_TYPE = 1 << 1;
+    private static final int SCHEMA_VERSION = 1 << 2;
+    private static final int OCCURRED_AT = 1 << 3;
+    private static final int PRODUCED_AT = 1 << 4;
+    private static final int ORDER_ID = 1 << 5;
+    private static final int CORRELATION_ID = 1 << 6;
+    private static final int PRODUCER = 1 << 7;
+    private static final int ALL_HEADERS = (1 << 8) - 1;
+
+    private final EventCodecRegistry registry;
+    private final JsonFactory factory;
+
+    public JsonEventCodec(EventCodecRegistry registry) {
+        this.registry = registry;
+        this.factory = registry.jsonMapper().getFactory();
+    }
+
+    @Override
+    public EventFormat format() {
+        return EventFormat.JSON;
+    }
+
+    @Override
+    public byte[] encode(EventEnvelope<?> envelope) {
+        try {
+            return registry.jsonEnvelopeWriter(envelope.getEventType()).writeValueAsBytes(envelope);
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to encode " + envelope.getEventType() + " as JSON", e);
+        }
+    }
+
+    @Override
+    public LazyEnvelope read(byte[] data) {
+        LazyEnvelope envelope = new LazyEnvelope(data, EventFormat.JSON, registry);
+
+        try (JsonParser parser = factory.createParser(data)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new EventCodecException("Event is not a JSON object");
+            }
+
+            int seen = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+
+                switch (field) {
+                    case "eventId" -> {
+                        envelope.eventId = parser.getValueAsString();
+                        seen |= EVENT_ID;
+                    }
+                    case "eventType" -> {
+                        envelope.eventType = parser.getValueAsString();
+                        seen |= EVENT_TYPE;
+                    }
+                    case "schemaVersion" -> {
+                        envelope.schemaVersion = value == JsonToken.VALUE_NULL ? null : parser.getValueAsInt();
+                        seen |= SCHEMA_VERSION;
+                    }
+                    case "occurredAt" -> {
+                        envelope.occurredAtText = parser.getValueAsString();
+                        seen |= OCCURRED_AT;
+                    }
+                    case "producedAt" -> {
+                        envelope.producedAtText = parser.getValueAsString();
+                        seen |= PRODUCED_AT;
+                    }
+                    case "orderId" -> {
+                        envelope.orderId = parser.getValueAsString();
+                        seen |= ORDER_ID;
+                    }
+                    case "correlationId" -> {
+                        envelope.correlationId = parser.getValueAsString();
+                        seen |= CORRELATION_ID;
+                    }
+                    case "producer" -> {
+                        envelope.producer = parser.getValueAsString();
+                        seen |= PRODUCER;
+                    }
+                    case "payload" -> {
+                        if (!readPayloadPosition(parser, value, envelope, seen == ALL_HEADERS)) {
+                            return envelope;
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to read JSON event", e);
+        }
+        return envelope;
+    }
+
+    /**
+     * Records where the payload starts (and ends, if scanning must go on).
+     * Returns {@code false} when the header scan can stop here.
+     */
+    private boolean readPayloadPosition(JsonParser parser, JsonToken value,
+            LazyEnvelope envelope, boolean headersComplete) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return true;
+        }
+        if (!value.isStructStart()) {
+            // Scalar payloads are tiny; not worth tracking offsets for
+            envelope.setPayload(registry.jsonMapper().readTree(parser));
+            return true;
+        }
+
+        envelope.payloadOffset = (int) parser.currentTokenLocation().getByteOffset();
+        if (headersComplete) {
+            return false;
+        }
+        parser.skipChildren();
+        envelope.payloadLength = (int) parser.currentLocation().getByteOffset() - envelope.payloadOffset;
+        return true;
+    }
+}
@@ -0,0 +1,135 @@
+package com.delivery.common.codec;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.IOException;
+import java.time.Instant;
+
+/**
+ * Header-only view of an encoded {@link com.delivery.common.event.EventEnvelope}.
+ *
+ * Codecs fill in the envelope metadata with a streaming pass over the record
+ * value and only remember where the payload sits inside it. The payload is
+ * parsed the first time it is asked for, so a listener that routes on
+ * {@code eventType} and ignores the event never pays for it.
+ *
+ * Listeners normally bind the payload straight to their mirror class with
+ * {@link #payload(Class)}, using the reader registered for the event type in
+ * {@link EventCodecRegistry}.
+ */
+public final class LazyEnvelope {
+
+    String eventId;
+    String eventType;
+    Integer schemaVersion;
+    Instant occurredAt;
+    Instant producedAt;
+    String orderId;
+    String correlationId;
+    String producer;
+
+    // JSON keeps timestamps as text until someone asks for them
+    String occurredAtText;
+    String producedAtText;
+
+    private final byte[] data;
+    private final EventFormat format;
+    private final EventCodecRegistry registry;
+    int payloadOffset = -1;
+    int payloadLength = -1;
+    private JsonNode payloadTree;
+
+    LazyEnvelope(byte[] data, EventFormat format, EventCodecRegistry registry) {
+        this.data = data;
+        this.format = format;
+        this.registry = registry;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public Integer getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public Instant getOccurredAt() {
+        if (occurredAt == null && occurredAtText != null) {
+            occurredAt = Instant.parse(occurredAtText);
+        }
+        return occurredAt;
+    }
+
+    public Instant getProducedAt() {
+        if (producedAt == null && producedAtText != null) {
+            producedAt = Instant.parse(producedAtText);
+        }
+        return producedAt;
+    }
+
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public String getProducer() {
+        return producer;
+    }
+
+    public EventFormat getFormat() {
+        return format;
+    }
+
+    public boolean hasPayload() {
+        return payloadTree != null || payloadOffset >= 0;
+    }
+
+    /**
+     * Binds the payload to {@code type}; returns {@code null} if the event has none.
+     * Each call decodes again, so call it once per event.
+     */
+    public <T> T payload(Class<T> type) {
+        ObjectReader reader = registry.payloadReader(eventType, type, format);
+        try {
+            if (payloadTree != null) {
+                return reader.readValue(payloadTree);
+            }
+            if (payloadOffset < 0) {
+                return null;
+            }
+            return reader.readValue(data, payloadOffset, payloadLength());
+        } catch (IOException e) {
+            throw new EventCodecException("Failed to decode " + eventType
+                    + " payload as " + type.getSimpleName(), e);
+        }
+    }
+
+    /** Parses the payload as a tree on first access; returns {@code null} if the event has none. */
+    public JsonNode payload() {
+        if (payloadTree == null && payloadOffset >= 0) {
+            try {
+                payloadTree = registry.treeReader(format).readTree(data, payloadOffset, payloadLength());
+            } catch (IOException e) {
+                throw new EventCodecException("Failed to decode " + eventType + " payload", e);
+            }
+        }
+        return payloadTree;
+    }
+
+    /** Used when the payload had to be materialized while scanning the headers. */
+    void setPayload(JsonNode payload) {
+        this.payloadTree = payload;
+    }
+
+    private int payloadLength() {
+        return payloadLength >= 0 ? payloadLength : data.length - payloadOffset;
+    }
+}
@@ -0,0 +1,157 @@
+package com.delivery.common.dedup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Skips the "have I processed this key?" database lookup for keys that
+ * were definitely never seen.
+ *
+ * A {@link ScalableBloomFilter} of every processed key sits in front of
+ * the store. Keys it has never seen are answered "new" without a query;
+ * only possible duplicates fall through to the store, which stays the
+ * source of truth. Seed the filter from the table at startup and
+ * {@link #add} each key just before its row is flushed.
+ *
+ * A key added to the filter whose insert then rolls back only costs a
+ * later store lookup. A key inserted by another instance (e.g. before a
+ * partition moved) is not in this filter, so the unique constraint is the
+ * real check: flush the insert before publishing anything, so the
+ * violation rolls back the transaction first. The key was added before
+ * the flush, so the retry goes to the store and is skipped as a duplicate.
+ *
+ * Every answer is counted, so the observed false-positive rate (possible
+ * duplicates the store did not know) can be compared with the estimate.
+ */
+public class DedupFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(DedupFilter.class);
+
+    private final String name;
+    private final ScalableBloomFilter filter;
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder falsePositives = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+
+    public DedupFilter(String name, long expectedKeys, double falsePositiveRate) {
+        this.name = name;
+        this.filter = new ScalableBloomFilter(expectedKeys, falsePositiveRate);
+    }
+
+    /**
+     * A filter seeded with every existing key, streamed in one read-only
+     * transaction (the stream of a Spring Data query must be consumed
+     * inside one).
+     *
+     * @param name     the table the keys come from; names the filter and its meters
+     * @param existing opens a stream of the keys already in the table
+     */
+    public static DedupFilter seeded(String name, long expectedKeys, double falsePositiveRate,
+            PlatformTransactionManager transactionManager, Supplier<Stream<String>> existing) {
+        DedupFilter filter = new DedupFilter(name, expectedKeys, falsePositiveRate);
+
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<String> keys = existing.get()) {
+                filter.seed(keys);
+            }
+        });
+
+        log.info("Dedup filter seeded with {} orderIds from {} ({} KiB)",
+                filter.filter().size(), name, filter.filter().memoryBytes() / 1024);
+        return filter;
+    }
+
+    /** Add existing keys, e.g. a streamed query over the table. */
+    public void seed(Stream<String> keys) {
+        keys.forEach(filter::add);
+    }
+
+    public void add(String key) {
+        filter.add(key);
+    }
+
+    /**
+     * @param store the authoritative check, only called for possible duplicates
+     * @return whether {@code key} was processed before
+     */
+    public boolean isDuplicate(String key, Predicate<String> store) {
+        if (!filter.mightContain(key)) {
+            skipped.increment();
+            return false;
+        }
+        return record(store.test(key));
+    }
+
+    /**
+     * Batch form of {@link #isDuplicate}: {@code store} is called once, with
+     * only the possible duplicates, and not at all if there are none.
+     *
+     * @param store returns the keys of its argument that exist
+     * @return the keys of {@code keys} processed before
+     */
+    public Set<String> duplicates(Collection<String> keys, Function<Collection<String>, Set<String>> store) {
+        List<String> candidates = new ArrayList<>();
+        for (String key : keys) {
+            if (filter.mightContain(key)) {
+                candidates.add(key);
+            } else {
+                skipped.increment();
+            }
+        }
+        if (candidates.isEmpty()) {
+            return Set.of();
+        }
+        Set<String> found = store.apply(candidates);
+        duplicates.add(found.size());
+        falsePositives.add(candidates.size() - found.size());
+        return found;
+    }
+
+    private boolean record(boolean duplicate) {
+        (duplicate ? duplicates : falsePositives).increment();
+        return duplicate;
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public ScalableBloomFilter filter() {
+        return filter;
+    }
+
+    /** Lookups answered "new" without touching the store. */
+    public long skippedLookups() {
+        return skipped.sum();
+    }
+
+    /** Possible duplicates the store did not know. */
+    public long falsePositives() {
+        return falsePositives.sum();
+    }
+
+    /** Possible duplicates the store confirmed. */
+    public long confirmedDuplicates() {
+        return duplicates.sum();
+    }
+
+    /** Share of new keys the filter could not rule out. */
+    public double observedFalsePositiveRate() {
+        long negatives = skipped.sum() + falsePositives.sum();
+        return negatives == 0 ? 0 : (double) falsePositives.sum() / negatives;
+    }
+}
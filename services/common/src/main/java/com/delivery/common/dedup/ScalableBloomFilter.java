@@ -0,0 +1,172 @@
+package com.delivery.common.dedup;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A Bloom filter that grows with the number of keys (Almeida et al.,
+ * "Scalable Bloom Filters").
+ *
+ * Keys go into the newest of a series of plain Bloom filters ("stages").
+ * When a stage holds its capacity, a new stage with twice the capacity and
+ * half the false-positive probability is added, so the overall rate stays
+ * below the configured one however many keys arrive: p·(1/2 + 1/4 + ...) &lt; p.
+ * A lookup checks every stage.
+ *
+ * Bits are set with an atomic OR, so adds and lookups need no lock; only
+ * adding a stage synchronizes. Answers are "definitely not added" or
+ * "possibly added" — keys cannot be removed.
+ */
+public class ScalableBloomFilter {
+
+    private static final VarHandle BITS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final double LN2 = Math.log(2);
+
+    private final double falsePositiveRate;
+    private volatile Stage[] stages;
+
+    /**
+     * @param expectedKeys      capacity of the first stage
+     * @param falsePositiveRate upper bound for the whole filter, e.g. 0.01
+     */
+    public ScalableBloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedKeys must be >= 1 and falsePositiveRate in (0, 1)");
+        }
+        this.falsePositiveRate = falsePositiveRate;
+        this.stages = new Stage[] {new Stage(expectedKeys, falsePositiveRate / 2)};
+    }
+
+    /** False means the key was definitely never added. */
+    public boolean mightContain(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (Stage stage : stages) {
+            if (stage.mightContain(h1, h2)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void add(String key) {
+        long h1 = hash(key);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        Stage[] current = stages;
+        for (Stage stage : current) {
+            if (stage.mightContain(h1, h2)) {
+                return;
+            }
+        }
+        Stage newest = current[current.length - 1];
+        newest.add(h1, h2);
+        if (newest.count.incrementAndGet() >= newest.capacity) {
+            grow(newest);
+        }
+    }
+
+    /** Keys added (approximately: keys that looked present were not counted). */
+    public long size() {
+        long size = 0;
+        for (Stage stage : stages) {
+            size += stage.count.get();
+        }
+        return size;
+    }
+
+    /** Bytes held by the bit arrays. */
+    public long memoryBytes() {
+        long bytes = 0;
+        for (Stage stage : stages) {
+            bytes += (long) stage.words.length * Long.BYTES;
+        }
+        return bytes;
+    }
+
+    /** False-positive probability at the current fill, estimated from each stage's key count. */
+    public double expectedFalsePositiveRate() {
+        double none = 1;
+        for (Stage stage : stages) {
+            double fill = 1 - Math.exp(-(double) stage.hashes * stage.count.get() / stage.bits);
+            none *= 1 - Math.pow(fill, stage.hashes);
+        }
+        return 1 - none;
+    }
+
+    public int stageCount() {
+        return stages.length;
+    }
+
+    public double falsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    private synchronized void grow(Stage full) {
+        Stage[] current = stages;
+        if (current[current.length - 1] != full) {
+            return; // another thread already grew
+        }
+        Stage[] grown = new Stage[current.length + 1];
+        System.arraycopy(current, 0, grown, 0, current.length);
+        grown[current.length] = new Stage(full.capacity * 2, full.falsePositiveRate / 2);
+        stages = grown;
+    }
+
+    // FNV-1a over the UTF-16 chars, finished with a 64-bit mix
+    private static long hash(String key) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            h = (h ^ key.charAt(i)) * 0x100000001B3L;
+        }
+        return mix(h);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        return z ^ (z >>> 33);
+    }
+
+    private static final class Stage {
+
+        final long capacity;
+        final double falsePositiveRate;
+        final long bits;
+        final int hashes;
+        final long[] words;
+        final AtomicLong count = new AtomicLong();
+
+        Stage(long capacity, double falsePositiveRate) {
+            long optimal = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (LN2 * LN2));
+            long words = (Math.max(64, optimal) + 63) / 64;
+            if (words > Integer.MAX_VALUE - 8) {
+                throw new IllegalStateException("Bloom filter stage too large: " + capacity + " keys");
+            }
+            this.capacity = capacity;
+            this.falsePositiveRate = falsePositiveRate;
+            this.words = new long[(int) words];
+            this.bits = words * 64;
+            this.hashes = Math.max(1, (int) Math.round((double) bits / capacity * LN2));
+        }
+
+        boolean mightContain(long h1, long h2) {
+            long h = h1;
+            for (int i = 0; i < hashes; i++, h += h2) {
+                long bit = Long.remainderUnsigned(h, bits);
+                if (((long) BITS.getVolatile(words, (int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void add(long h1, long h2) {
+            long h = h1;
+            for (int i = 0; i < hashes; i++, h += h2) {
+                long bit = Long.remainderUnsigned(h, bits);
+                BITS.getAndBitwiseOr(words, (int) (bit >>> 6), 1L << bit);
+            }
+        }
+    }
+}
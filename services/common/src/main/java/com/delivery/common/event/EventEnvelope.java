@@ -1,8 +1,8 @@
 package com.delivery.common.event;
 
+import com.delivery.common.id.TimeOrderedIds;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import java.time.Instant;
-import java.util.UUID;
 
 /**
  * Common event envelope used by all services.
@@ -127,7 +127,7 @@ public class EventEnvelope<T> {
      * Ensures required fields are set and generates defaults.
      */
     public static class Builder<T> {
-        private String eventId = UUID.randomUUID().toString();
+        private String eventId = TimeOrderedIds.next();
         private String eventType;
         private Integer schemaVersion = 1;
         private Instant occurredAt;
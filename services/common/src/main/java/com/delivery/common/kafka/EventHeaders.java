@@ -0,0 +1,65 @@
+package com.delivery.common.kafka;
+
+import com.delivery.common.event.EventEnvelope;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * Kafka record headers that mirror the envelope metadata.
+ *
+ * The envelope body stays the source of truth; the headers duplicate the
+ * routing fields so consumers can route and filter a record without decoding
+ * its value. All values are UTF-8 text ({@code occurredAt} as ISO-8601).
+ */
+public final class EventHeaders {
+
+    private EventHeaders() {
+    } // Prevent instantiation
+
+    public static final String EVENT_TYPE = "eventType";
+    public static final String EVENT_ID = "eventId";
+    public static final String CORRELATION_ID = "correlationId";
+    public static final String SCHEMA_VERSION = "schemaVersion";
+    public static final String OCCURRED_AT = "occurredAt";
+
+    /** Adds the envelope's routing metadata to {@code headers}. */
+    public static void write(Headers headers, EventEnvelope<?> envelope) {
+        write(headers, envelope.getEventType(), envelope.getEventId(), envelope.getCorrelationId(),
+                envelope.getSchemaVersion(), envelope.getOccurredAt());
+    }
+
+    /** Same as {@link #write(Headers, EventEnvelope)}, for envelopes that were stored already encoded. */
+    public static void write(Headers headers, String eventType, String eventId, String correlationId,
+            Integer schemaVersion, Instant occurredAt) {
+        add(headers, EVENT_TYPE, eventType);
+        add(headers, EVENT_ID, eventId);
+        add(headers, CORRELATION_ID, correlationId);
+        if (schemaVersion != null) {
+            add(headers, SCHEMA_VERSION, schemaVersion.toString());
+        }
+        if (occurredAt != null) {
+            add(headers, OCCURRED_AT, occurredAt.toString());
+        }
+    }
+
+    /** Returns the {@code eventType} header, or {@code null} for records published without headers. */
+    public static String eventType(Headers headers) {
+        return text(headers, EVENT_TYPE);
+    }
+
+    public static String text(Headers headers, String key) {
+        Header header = headers.lastHeader(key);
+        return header != null && header.value() != null
+                ? new String(header.value(), StandardCharsets.UTF_8)
+                : null;
+    }
+
+    private static void add(Headers headers, String key, String value) {
+        if (value != null) {
+            headers.add(key, value.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
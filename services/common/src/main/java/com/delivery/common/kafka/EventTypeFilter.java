@@ -0,0 +1,55 @@
+package com.delivery.common.kafka;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Header;
+import org.springframework.kafka.listener.adapter.RecordFilterStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Drops records whose {@code eventType} header names an event the listener
+ * does not handle, before the record value is decoded.
+ *
+ * Register one as a bean per listener and reference it by name:
+ * <pre>
+ * &#64;KafkaListener(topics = Topics.PAYMENT_EVENTS, filter = "paymentEventFilter")
+ * </pre>
+ * The comparison is done on the raw header bytes, so filtered records cost no
+ * allocation at all. Records without the header (published before headers
+ * existed) are passed through for the listener to route on the body.
+ */
+public class EventTypeFilter implements RecordFilterStrategy<String, byte[]> {
+
+    private final byte[][] handledTypes;
+
+    private EventTypeFilter(String... eventTypes) {
+        this.handledTypes = Arrays.stream(eventTypes)
+                .map(type -> type.getBytes(StandardCharsets.UTF_8))
+                .toArray(byte[][]::new);
+    }
+
+    /** A filter that keeps only records of the given event types. */
+    public static EventTypeFilter accepting(String... eventTypes) {
+        return new EventTypeFilter(eventTypes);
+    }
+
+    /** Returns {@code true} to discard the record. */
+    @Override
+    public boolean filter(ConsumerRecord<String, byte[]> record) {
+        Header header = record.headers().lastHeader(EventHeaders.EVENT_TYPE);
+        if (header == null || header.value() == null) {
+            return false;
+        }
+        return !handles(header.value());
+    }
+
+    private boolean handles(byte[] eventType) {
+        for (byte[] handled : handledTypes) {
+            if (Arrays.equals(handled, eventType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
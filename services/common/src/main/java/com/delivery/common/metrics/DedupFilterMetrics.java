@@ -0,0 +1,64 @@
+package com.delivery.common.metrics;
+
+import com.delivery.common.dedup.DedupFilter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Meters for a {@link DedupFilter}, tagged {@code filter=<name>}:
+ * <ul>
+ *   <li>{@code dedup.filter.lookups{result=skipped|false_positive|duplicate}}</li>
+ *   <li>{@code dedup.filter.false.positive.rate{kind=observed|expected}}</li>
+ *   <li>{@code dedup.filter.memory} (bytes), {@code dedup.filter.keys}, {@code dedup.filter.stages}</li>
+ * </ul>
+ * Register it as a bean; Spring Boot binds every {@link MeterBinder} bean.
+ */
+public class DedupFilterMetrics implements MeterBinder {
+
+    private final DedupFilter dedup;
+
+    public DedupFilterMetrics(DedupFilter dedup) {
+        this.dedup = dedup;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        String name = dedup.name();
+        lookups(registry, "skipped", "Lookups answered without the store");
+        lookups(registry, "false_positive", "Possible duplicates the store did not know");
+        lookups(registry, "duplicate", "Possible duplicates the store confirmed");
+
+        Gauge.builder("dedup.filter.false.positive.rate", dedup, DedupFilter::observedFalsePositiveRate)
+                .description("Share of new keys sent to the store anyway")
+                .tags("filter", name, "kind", "observed")
+                .register(registry);
+        Gauge.builder("dedup.filter.false.positive.rate", dedup, d -> d.filter().expectedFalsePositiveRate())
+                .description("Estimated from the filter's fill")
+                .tags("filter", name, "kind", "expected")
+                .register(registry);
+        Gauge.builder("dedup.filter.memory", dedup, d -> d.filter().memoryBytes())
+                .description("Bytes held by the filter's bit arrays")
+                .baseUnit("bytes")
+                .tag("filter", name)
+                .register(registry);
+        Gauge.builder("dedup.filter.keys", dedup, d -> d.filter().size())
+                .tag("filter", name)
+                .register(registry);
+        Gauge.builder("dedup.filter.stages", dedup, d -> d.filter().stageCount())
+                .tag("filter", name)
+                .register(registry);
+    }
+
+    private void lookups(MeterRegistry registry, String result, String description) {
+        FunctionCounter.builder("dedup.filter.lookups", dedup, d -> switch (result) {
+                    case "skipped" -> d.skippedLookups();
+                    case "false_positive" -> d.falsePositives();
+                    default -> d.confirmedDuplicates();
+                })
+                .description(description)
+                .tags("filter", dedup.name(), "result", result)
+                .register(registry);
+    }
+}
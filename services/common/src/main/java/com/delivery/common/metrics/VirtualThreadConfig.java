@@ -0,0 +1,34 @@
+package com.delivery.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Monitoring for the virtual-thread execution mode, shared by the services
+ * that serve requests on virtual threads. Pull it in with
+ * {@code @Import(VirtualThreadConfig.class)}.
+ *
+ * CONCEPT: Virtual Threads
+ * - With spring.threads.virtual.enabled, every request runs on its own
+ *   virtual thread instead of a slot in Tomcat's 200-thread pool
+ * - A virtual thread blocked on JDBC unmounts, freeing its carrier (OS)
+ *   thread for other requests — so concurrency is bounded by the
+ *   connection pool, not by the thread pool
+ * - Blocking inside synchronized "pins" the carrier instead; pins are
+ *   counted as jvm.threads.virtual.pinned at /actuator/prometheus
+ */
+@Configuration
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadConfig {
+
+    @Bean(destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry registry,
+            @Value("${virtual-threads.pinned-threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(registry, Duration.ofMillis(thresholdMs));
+    }
+}
@@ -0,0 +1,71 @@
+package com.delivery.common.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Counts virtual threads that pinned their carrier thread.
+ *
+ * A virtual thread that blocks inside a {@code synchronized} block (or a
+ * native frame) cannot unmount, so it holds a carrier thread for the whole
+ * wait. Enough of those and the service is back to a fixed-size thread pool.
+ * The JVM reports each occurrence as a {@code jdk.VirtualThreadPinned} JFR
+ * event; this streams those events in-process and records them as the
+ * {@code jvm.threads.virtual.pinned} timer (count and pinned duration).
+ *
+ * The top application frame of each pinned stack is logged at debug level,
+ * which is usually enough to find the offending monitor.
+ */
+public class VirtualThreadPinningMonitor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final RecordingStream stream;
+    private final Timer pinned;
+
+    /**
+     * @param threshold shortest pin worth recording; the JDK default is 20 ms
+     */
+    public VirtualThreadPinningMonitor(MeterRegistry registry, Duration threshold) {
+        this.pinned = Timer.builder("jvm.threads.virtual.pinned")
+                .description("Virtual threads that blocked while pinned to their carrier thread")
+                .register(registry);
+
+        this.stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::record);
+        stream.startAsync();
+    }
+
+    private void record(RecordedEvent event) {
+        pinned.record(event.getDuration());
+        if (log.isDebugEnabled() && event.getStackTrace() != null) {
+            log.debug("Virtual thread pinned for {} at {}", event.getDuration(),
+                    firstApplicationFrame(event.getStackTrace().getFrames()));
+        }
+    }
+
+    private static String firstApplicationFrame(List<RecordedFrame> frames) {
+        for (RecordedFrame frame : frames) {
+            String type = frame.getMethod().getType().getName();
+            if (!type.startsWith("java.") && !type.startsWith("jdk.")) {
+                return type + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+            }
+        }
+        return frames.isEmpty() ? "unknown" : frames.get(0).getMethod().getName();
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+}
@@ -0,0 +1,238 @@
+package com.delivery.common.id;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput into copies of the {@code orders}, {@code reservations}
+ * and {@code deliveries} tables, before and after time-ordered ids.
+ *
+ * - {@code ids=random} keys rows the old way, with {@link UUID#randomUUID()};
+ *   {@code ids=v7} uses {@link TimeOrderedIds#next()}. The key lands in the
+ *   same unique index as in the real table ({@code order_id}, and also
+ *   {@code delivery_id} for deliveries).
+ * - {@code pk=identity} lets Postgres number rows (one IDENTITY value per
+ *   row); {@code pk=pooled} takes blocks of 50 from a sequence, as Hibernate
+ *   does with {@code allocationSize = 50}.
+ *
+ * Each operation is one transaction of {@value #BATCH} batched inserts, and
+ * scores are rows per second. The tables are created as {@code bench_*} in
+ * the target database and dropped after each trial.
+ *
+ * Needs a running Postgres (e.g. {@code infra/compose}):
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.args="-p url=jdbc:postgresql://localhost:5432/order_db"}.
+ * Results depend on the instance; run before/after on the same hardware and
+ * let the tables grow past memory ({@code -i 10 -r 30s}) to see the index
+ * effect.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Threads(8)
+@Fork(1)
+public class IdInsertBenchmark {
+
+    static final int BATCH = 50;
+
+    @Param({"jdbc:postgresql://localhost:5432/delivery_eta"})
+    public String url;
+
+    @Param({"postgres"})
+    public String user;
+
+    @Param({"postgres"})
+    public String password;
+
+    @Param({"random", "v7"})
+    public String ids;
+
+    @Param({"identity", "pooled"})
+    public String pk;
+
+    private static final String[] TABLES = {"bench_orders", "bench_reservations", "bench_deliveries"};
+
+    Connection connect() throws SQLException {
+        Properties props = new Properties();
+        props.setProperty("user", user);
+        props.setProperty("password", password);
+        // As in the services' datasource URLs: batches become multi-row INSERTs
+        props.setProperty("reWriteBatchedInserts", "true");
+        return DriverManager.getConnection(url, props);
+    }
+
+    @Setup(Level.Trial)
+    public void createTables() throws SQLException {
+        String id = "pooled".equals(pk)
+                ? "id BIGINT PRIMARY KEY"
+                : "id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY";
+        try (Connection c = connect();
+             Statement s = c.createStatement()) {
+            dropTables(s);
+            s.execute("CREATE TABLE bench_orders (" + id + ", order_id VARCHAR(255) NOT NULL UNIQUE,"
+                    + " customer_id VARCHAR(255) NOT NULL, status VARCHAR(32) NOT NULL,"
+                    + " total_amount NUMERIC(10,2) NOT NULL, created_at TIMESTAMPTZ NOT NULL)");
+            s.execute("CREATE TABLE bench_reservations (" + id + ", order_id VARCHAR(255) NOT NULL UNIQUE,"
+                    + " customer_id VARCHAR(255) NOT NULL, status VARCHAR(32) NOT NULL,"
+                    + " amount NUMERIC(10,2) NOT NULL, created_at TIMESTAMPTZ NOT NULL)");
+            s.execute("CREATE TABLE bench_deliveries (" + id + ", order_id VARCHAR(255) NOT NULL UNIQUE,"
+                    + " delivery_id VARCHAR(255) NOT NULL UNIQUE, driver_name VARCHAR(255) NOT NULL,"
+                    + " status VARCHAR(32) NOT NULL, created_at TIMESTAMPTZ NOT NULL)");
+            for (String table : TABLES) {
+                s.execute("CREATE SEQUENCE " + table + "_seq INCREMENT BY " + BATCH);
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropTables() throws SQLException {
+        try (Connection c = connect();
+             Statement s = c.createStatement()) {
+            dropTables(s);
+        }
+    }
+
+    private static void dropTables(Statement s) throws SQLException {
+        for (String table : TABLES) {
+            s.execute("DROP TABLE IF EXISTS " + table);
+            s.execute("DROP SEQUENCE IF EXISTS " + table + "_seq");
+        }
+    }
+
+    /** One connection per benchmark thread, like one Hikari connection per request. */
+    @State(Scope.Thread)
+    public static class Session {
+        Connection connection;
+
+        @Setup(Level.Trial)
+        public void open(IdInsertBenchmark bench) throws SQLException {
+            connection = bench.connect();
+            connection.setAutoCommit(false);
+        }
+
+        @TearDown(Level.Trial)
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    private String nextKey() {
+        return "v7".equals(ids) ? TimeOrderedIds.next() : UUID.randomUUID().toString();
+    }
+
+    /** The first id of a block of {@value #BATCH}, or null when Postgres assigns them. */
+    private Long nextBlock(Connection c, String table) throws SQLException {
+        if (!"pooled".equals(pk)) {
+            return null;
+        }
+        try (Statement s = c.createStatement();
+             ResultSet rs = s.executeQuery("SELECT nextval('" + table + "_seq')")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void orders(Session session) throws SQLException {
+        insert(session.connection, "bench_orders",
+                "order_id, customer_id, status, total_amount, created_at", (ps, i) -> {
+                    ps.setString(1, nextKey());
+                    ps.setString(2, "customer-" + i);
+                    ps.setString(3, "CREATED");
+                    ps.setBigDecimal(4, BigDecimal.valueOf(25));
+                });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void reservations(Session session) throws SQLException {
+        insert(session.connection, "bench_reservations",
+                "order_id, customer_id, status, amount, created_at", (ps, i) -> {
+                    ps.setString(1, nextKey());
+                    ps.setString(2, "customer-" + i);
+                    ps.setString(3, "RESERVED");
+                    ps.setBigDecimal(4, BigDecimal.valueOf(25));
+                });
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void deliveries(Session session) throws SQLException {
+        insert(session.connection, "bench_deliveries",
+                "order_id, delivery_id, driver_name, status, created_at", (ps, i) -> {
+                    ps.setString(1, nextKey());
+                    ps.setString(2, "DEL-" + nextKey());
+                    ps.setString(3, "driver-" + i);
+                    ps.setString(4, "ASSIGNED");
+                });
+    }
+
+    @FunctionalInterface
+    private interface Row {
+        /** Bind parameters 1-4; {@link #insert} binds created_at and the pooled id. */
+        void bind(PreparedStatement ps, int i) throws SQLException;
+    }
+
+    private void insert(Connection c, String table, String columns, Row row) throws SQLException {
+        Long first = nextBlock(c, table);
+        String sql = first != null
+                ? "INSERT INTO " + table + " (" + columns + ", id) VALUES (?, ?, ?, ?, ?, ?)"
+                : "INSERT INTO " + table + " (" + columns + ") VALUES (?, ?, ?, ?, ?)";
+        Timestamp now = Timestamp.from(Instant.now());
+
+        try (PreparedStatement ps = c.prepareStatement(sql)) {
+            for (int i = 0; i < BATCH; i++) {
+                row.bind(ps, i);
+                ps.setTimestamp(5, now);
+                if (first != null) {
+                    ps.setLong(6, first + i);
+                }
+                ps.addBatch();
+            }
+            ps.executeBatch();
+            c.commit();
+        } catch (SQLException e) {
+            c.rollback();
+            throw e;
+        }
+    }
+
+    /** One run of every table, id scheme and key type. */
+    public static void main(String[] args) throws Exception {
+        new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .include(IdInsertBenchmark.class.getName())
+                .build()).run();
+    }
+}
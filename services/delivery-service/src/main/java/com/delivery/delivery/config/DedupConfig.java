@@ -0,0 +1,34 @@
+package com.delivery.delivery.config;
+
+import com.delivery.common.dedup.DedupFilter;
+import com.delivery.common.metrics.DedupFilterMetrics;
+import com.delivery.delivery.repository.DeliveryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Bloom filter of processed orderIds in front of
+ * {@code DeliveryRepository.existsByOrderId}. It is seeded from the deliveries
+ * table before the Kafka listeners start, and the processor adds each
+ * orderId it inserts.
+ */
+@Configuration
+public class DedupConfig {
+
+    @Bean
+    public DedupFilter deliveryDedupFilter(
+            DeliveryRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${dedup.expected-keys:1000000}") long expectedKeys,
+            @Value("${dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        return DedupFilter.seeded("deliveries", expectedKeys, falsePositiveRate,
+                transactionManager, repository::streamAllOrderIds);
+    }
+
+    @Bean
+    public DedupFilterMetrics dedupFilterMetrics(DedupFilter deliveryDedupFilter) {
+        return new DedupFilterMetrics(deliveryDedupFilter);
+    }
+}
@@ -1,8 +1,8 @@
 package com.delivery.delivery.entity;
 
+import com.delivery.common.id.TimeOrderedIds;
 import jakarta.persistence.*;
 import java.time.Instant;
-import java.util.UUID;
 
 @Entity
 @Table(name = "deliveries")
@@ -40,7 +40,7 @@ public class Delivery {
             Instant estimatedDeliveryTime) {
         Delivery d = new Delivery();
         d.orderId = orderId;
-        d.deliveryId = "DEL-" + UUID.randomUUID().toString().substring(0, 8);
+        d.deliveryId = "DEL-" + TimeOrderedIds.next();
         d.driverName = driverName;
         d.status = DeliveryStatus.ASSIGNED;
         d.estimatedDeliveryTime = estimatedDeliveryTime;
@@ -1,10 +1,10 @@
 package com.delivery.delivery.listener;
 
+import com.delivery.common.codec.EventCodecs;
+import com.delivery.common.codec.LazyEnvelope;
 import com.delivery.common.event.EventTypes;
 import com.delivery.common.event.Topics;
 import com.delivery.delivery.service.DeliveryProcessor;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -15,25 +15,28 @@ public class DeliveryEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(DeliveryEventListener.class);
 
-    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
     private final DeliveryProcessor deliveryProcessor;
 
-    public DeliveryEventListener(ObjectMapper objectMapper,
+    public DeliveryEventListener(EventCodecs eventCodecs,
             DeliveryProcessor deliveryProcessor) {
-        this.objectMapper = objectMapper;
+        this.eventCodecs = eventCodecs;
         this.deliveryProcessor = deliveryProcessor;
     }
 
-    @KafkaListener(topics = Topics.PAYMENT_EVENTS, groupId = "${spring.kafka.consumer.group-id}")
-    public void handlePaymentEvent(String message) {
+    @KafkaListener(
+            topics = Topics.PAYMENT_EVENTS,
+            groupId = "${spring.kafka.consumer.group-id}",
+            filter = "paymentEventFilter")
+    public void handlePaymentEvent(byte[] message) {
         log.info("Received payment event");
 
         try {
-            JsonNode eventNode = objectMapper.readTree(message);
-            String eventType = eventNode.get("eventType").asText();
-            String orderId = eventNode.get("orderId").asText();
-            String correlationId = eventNode.has("correlationId")
-                    ? eventNode.get("correlationId").asText()
+            LazyEnvelope event = eventCodecs.read(message);
+            String eventType = event.getEventType();
+            String orderId = event.getOrderId();
+            String correlationId = event.getCorrelationId() != null
+                    ? event.getCorrelationId()
                     : orderId;
 
             log.info("Processing event: type={}, orderId={}", eventType, orderId);
@@ -1,10 +1,11 @@
 package com.delivery.delivery.publisher;
 
+import com.delivery.common.codec.EventCodecs;
 import com.delivery.common.event.EventEnvelope;
 import com.delivery.common.event.Topics;
+import com.delivery.common.kafka.EventHeaders;
 import com.delivery.delivery.dto.DeliveryEventPayload;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -16,13 +17,13 @@ public class DeliveryEventPublisher {
     private static final Logger log = LoggerFactory.getLogger(DeliveryEventPublisher.class);
     private static final String PRODUCER_NAME = "delivery-service";
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventCodecs eventCodecs;
 
-    public DeliveryEventPublisher(KafkaTemplate<String, String> kafkaTemplate,
-            ObjectMapper objectMapper) {
+    public DeliveryEventPublisher(KafkaTemplate<String, byte[]> kafkaTemplate,
+            EventCodecs eventCodecs) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.eventCodecs = eventCodecs;
     }
 
     public void publishDeliveryEvent(String eventType, String orderId,
@@ -37,24 +38,20 @@ public class DeliveryEventPublisher {
                         .payload(payload)
                         .build();
 
-        try {
-            String json = objectMapper.writeValueAsString(envelope);
-
-            kafkaTemplate.send(Topics.DELIVERY_EVENTS, orderId, json)
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            log.error("Failed to publish {} for order={}: {}",
-                                    eventType, orderId, ex.getMessage());
-                        } else {
-                            log.info("Published {} for order={} to partition={}",
-                                    eventType, orderId,
-                                    result.getRecordMetadata().partition());
-                        }
-                    });
-
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize event: {}", e.getMessage());
-            throw new RuntimeException("Event serialization failed", e);
-        }
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                Topics.DELIVERY_EVENTS, orderId, eventCodecs.encode(Topics.DELIVERY_EVENTS, envelope));
+        EventHeaders.write(record.headers(), envelope);
+
+        kafkaTemplate.send(record)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish {} for order={}: {}",
+                                eventType, orderId, ex.getMessage());
+                    } else {
+                        log.info("Published {} for order={} to partition={}",
+                                eventType, orderId,
+                                result.getRecordMetadata().partition());
+                    }
+                });
     }
 }
@@ -1,10 +1,15 @@
 package com.delivery.delivery.repository;
 
 import com.delivery.delivery.entity.Delivery;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
@@ -12,4 +17,8 @@ public interface DeliveryRepository extends JpaRepository<Delivery, Long> {
     Optional<Delivery> findByOrderId(String orderId);
 
     boolean existsByOrderId(String orderId);
+
+    @Query("SELECT d.orderId FROM Delivery d")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllOrderIds();
 }
@@ -1,5 +1,6 @@
 package com.delivery.delivery.service;
 
+import com.delivery.common.dedup.DedupFilter;
 import com.delivery.common.event.EventTypes;
 import com.delivery.delivery.dto.DeliveryEventPayload;
 import com.delivery.delivery.entity.Delivery;
@@ -27,17 +28,20 @@ public class DeliveryProcessor {
 
     private final DeliveryRepository deliveryRepository;
     private final DeliveryEventPublisher eventPublisher;
+    private final DedupFilter dedupFilter;
 
     public DeliveryProcessor(DeliveryRepository deliveryRepository,
-            DeliveryEventPublisher eventPublisher) {
+            DeliveryEventPublisher eventPublisher,
+            DedupFilter dedupFilter) {
         this.deliveryRepository = deliveryRepository;
         this.eventPublisher = eventPublisher;
+        this.dedupFilter = dedupFilter;
     }
 
     @Transactional
     public void processPaymentAuthorized(String orderId, String correlationId) {
 
-        if (deliveryRepository.existsByOrderId(orderId)) {
+        if (dedupFilter.isDuplicate(orderId, deliveryRepository::existsByOrderId)) {
             log.info("Delivery already exists for orderId={}, skipping", orderId);
             return;
         }
@@ -46,7 +50,10 @@ public class DeliveryProcessor {
         Instant eta = calculateEta();
 
         Delivery delivery = Delivery.create(orderId, driverName, eta);
-        deliveryRepository.save(delivery);
+        // Before the flush, so a redelivery after a unique violation goes to Postgres
+        dedupFilter.add(orderId);
+        // Flush now: a delivery inserted by another instance must fail here, before any event is sent
+        deliveryRepository.saveAndFlush(delivery);
 
         log.info("Delivery assigned: orderId={}, deliveryId={}, driver={}, eta={}",
                 orderId, delivery.getDeliveryId(), driverName, eta);
@@ -0,0 +1,27 @@
+package com.delivery.inventory.config;
+
+import com.delivery.common.event.EventTypes;
+import com.delivery.common.kafka.EventTypeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Header-based record filters for the Kafka listeners. Records of event types
+ * a listener does not handle are dropped by the container before the value
+ * is decoded.
+ */
+@Configuration
+public class KafkaListenerConfig {
+
+    /** Event types {@code InventoryEventListener} handles. */
+    @Bean
+    public EventTypeFilter orderEventFilter() {
+        return EventTypeFilter.accepting(EventTypes.ORDER_CREATED);
+    }
+
+    /** Event types {@code PaymentEventListener} handles. */
+    @Bean
+    public EventTypeFilter paymentEventFilter() {
+        return EventTypeFilter.accepting(EventTypes.PAYMENT_AUTHORIZED, EventTypes.PAYMENT_FAILED);
+    }
+}
@@ -0,0 +1,70 @@
+package com.delivery.inventory.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Stock levels for the in-memory ledger ({@code inventory.stock}).
+ * Items listed in {@code initial} start with that quantity; any other
+ * item starts with {@code default-quantity}.
+ */
+@ConfigurationProperties(prefix = "inventory.stock")
+public class StockProperties {
+
+    /** Ledger shards; 0 picks a power of two of about 4 per core. */
+    private int shards = 0;
+
+    private long defaultQuantity = 1_000_000;
+
+    private Map<String, Long> initial = new HashMap<>();
+
+    /** Items whose stock is striped across slots (see StripedStock). */
+    private List<String> hotItems = new ArrayList<>();
+
+    /** Slots per hot item; 0 picks the core count rounded up to a power of two. */
+    private int hotSlots = 0;
+
+    public int getShards() {
+        return shards;
+    }
+
+    public void setShards(int shards) {
+        this.shards = shards;
+    }
+
+    public long getDefaultQuantity() {
+        return defaultQuantity;
+    }
+
+    public void setDefaultQuantity(long defaultQuantity) {
+        this.defaultQuantity = defaultQuantity;
+    }
+
+    public Map<String, Long> getInitial() {
+        return initial;
+    }
+
+    public void setInitial(Map<String, Long> initial) {
+        this.initial = initial;
+    }
+
+    public List<String> getHotItems() {
+        return hotItems;
+    }
+
+    public void setHotItems(List<String> hotItems) {
+        this.hotItems = hotItems;
+    }
+
+    public int getHotSlots() {
+        return hotSlots;
+    }
+
+    public void setHotSlots(int hotSlots) {
+        this.hotSlots = hotSlots;
+    }
+}
@@ -0,0 +1,7 @@
+package com.delivery.inventory.dto;
+
+import java.time.Instant;
+
+/** A RESERVED reservation waiting for payment; expiresAt is null for rows written before TTLs. */
+public record PendingReservation(String orderId, Instant createdAt, Instant expiresAt) {
+}
@@ -0,0 +1,5 @@
+package com.delivery.inventory.dto;
+
+/** Total quantity of one item held by RESERVED or CONFIRMED reservations. */
+public record ReservedQuantity(String itemId, Long quantity) {
+}
@@ -3,13 +3,16 @@ package com.delivery.inventory.entity;
 import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 
 @Entity
 @Table(name = "reservations")
 public class Reservation {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reservations_seq")
+    @SequenceGenerator(name = "reservations_seq", sequenceName = "reservations_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -31,11 +34,18 @@ public class Reservation {
     @Column(nullable = false)
     private Instant createdAt;
 
+    private Instant expiresAt;
+
+    @ElementCollection
+    @CollectionTable(name = "reservation_items", joinColumns = @JoinColumn(name = "reservation_id"))
+    private List<ReservedItem> items = new ArrayList<>();
+
     public Reservation() {
     }
 
     public static Reservation create(String orderId, String customerId,
-            BigDecimal amount, String currency, ReservationStatus status) {
+            BigDecimal amount, String currency, ReservationStatus status, List<ReservedItem> items,
+            Instant expiresAt) {
         Reservation r = new Reservation();
         r.orderId = orderId;
         r.customerId = customerId;
@@ -43,6 +53,8 @@ public class Reservation {
         r.currency = currency;
         r.status = status;
         r.createdAt = Instant.now();
+        r.expiresAt = expiresAt;
+        r.items.addAll(items);
         return r;
     }
 
@@ -73,4 +85,12 @@ public class Reservation {
     public Instant getCreatedAt() {
         return createdAt;
     }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public List<ReservedItem> getItems() {
+        return items;
+    }
 }
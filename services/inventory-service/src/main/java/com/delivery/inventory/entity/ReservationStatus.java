@@ -2,5 +2,7 @@ package com.delivery.inventory.entity;
 
 public enum ReservationStatus {
     RESERVED,
-    REJECTED
+    REJECTED,
+    CONFIRMED,  // payment authorized; the stock is sold
+    RELEASED    // expired or payment failed; the stock is back in the ledger
 }
@@ -0,0 +1,30 @@
+package com.delivery.inventory.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+@Embeddable
+public class ReservedItem {
+
+    @Column(nullable = false)
+    private String itemId;
+
+    @Column(nullable = false)
+    private int quantity;
+
+    public ReservedItem() {
+    }
+
+    public ReservedItem(String itemId, int quantity) {
+        this.itemId = itemId;
+        this.quantity = quantity;
+    }
+
+    public String getItemId() {
+        return itemId;
+    }
+
+    public int getQuantity() {
+        return quantity;
+    }
+}
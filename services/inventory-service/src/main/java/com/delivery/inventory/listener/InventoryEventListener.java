@@ -1,47 +1,83 @@
 package com.delivery.inventory.listener;
 
+import com.delivery.common.codec.EventCodecs;
+import com.delivery.common.codec.LazyEnvelope;
 import com.delivery.common.event.EventTypes;
 import com.delivery.common.event.Topics;
+import com.delivery.inventory.dto.OrderCreatedPayload;
 import com.delivery.inventory.service.InventoryProcessor;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.delivery.inventory.service.ReservationRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
 
+/**
+ * Consumes order.created events. With {@code inventory.listener.batch}
+ * (the default) each poll is handed to the processor as one batch;
+ * otherwise records are processed one at a time.
+ */
 @Component
 public class InventoryEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(InventoryEventListener.class);
 
-    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
     private final InventoryProcessor inventoryProcessor;
 
-    public InventoryEventListener(ObjectMapper objectMapper,
+    public InventoryEventListener(EventCodecs eventCodecs,
             InventoryProcessor inventoryProcessor) {
-        this.objectMapper = objectMapper;
+        this.eventCodecs = eventCodecs;
         this.inventoryProcessor = inventoryProcessor;
     }
 
-    @KafkaListener(topics = Topics.ORDER_EVENTS, groupId = "${spring.kafka.consumer.group-id}")
-    public void handleOrderEvent(String message) {
+    @KafkaListener(
+            topics = Topics.ORDER_EVENTS,
+            groupId = "${spring.kafka.consumer.group-id}",
+            filter = "orderEventFilter",
+            batch = "true",
+            autoStartup = "${inventory.listener.batch:true}")
+    public void handleOrderEvents(List<byte[]> messages) throws Exception {
+        List<ReservationRequest> requests = new ArrayList<>(messages.size());
+        for (byte[] message : messages) {
+            try {
+                LazyEnvelope event = eventCodecs.read(message);
+                if (EventTypes.ORDER_CREATED.equals(event.getEventType())) {
+                    requests.add(toRequest(event));
+                } else {
+                    log.warn("Ignoring unknown event type: {}", event.getEventType());
+                }
+            } catch (Exception e) {
+                // An undecodable record cannot succeed on retry; skip it, keep the batch
+                log.error("Skipping unreadable order event: {}", e.getMessage(), e);
+            }
+        }
+
+        if (!requests.isEmpty()) {
+            inventoryProcessor.processOrders(requests);
+        }
+    }
+
+    @KafkaListener(
+            topics = Topics.ORDER_EVENTS,
+            groupId = "${spring.kafka.consumer.group-id}",
+            filter = "orderEventFilter",
+            autoStartup = "#{!${inventory.listener.batch:true}}")
+    public void handleOrderEvent(byte[] message) {
         log.info("Received order event");
 
         try {
-            JsonNode eventNode = objectMapper.readTree(message);
-            String eventType = eventNode.get("eventType").asText();
-            String orderId = eventNode.get("orderId").asText();
-            String correlationId = eventNode.has("correlationId")
-                    ? eventNode.get("correlationId").asText()
-                    : orderId;
+            LazyEnvelope event = eventCodecs.read(message);
+            String eventType = event.getEventType();
+            String orderId = event.getOrderId();
 
             log.info("Processing event: type={}, orderId={}", eventType, orderId);
 
             if (EventTypes.ORDER_CREATED.equals(eventType)) {
-                handleOrderCreated(eventNode, correlationId);
+                handleOrderCreated(event);
             } else {
                 log.warn("Ignoring unknown event type: {}", eventType);
             }
@@ -52,17 +88,25 @@ public class InventoryEventListener {
         }
     }
 
-    private void handleOrderCreated(JsonNode eventNode, String correlationId) {
-        String orderId = eventNode.get("orderId").asText();
-        JsonNode payload = eventNode.get("payload");
+    private void handleOrderCreated(LazyEnvelope event) {
+        ReservationRequest request = toRequest(event);
+        inventoryProcessor.processOrder(
+                request.orderId(), request.correlationId(), request.customerId(), request.totalAmount(),
+                request.currency(), request.items());
+    }
 
-        String customerId = payload.get("customerId").asText();
-        BigDecimal totalAmount = new BigDecimal(payload.get("totalAmount").asText());
-        String currency = payload.has("currency")
-                ? payload.get("currency").asText()
+    private static ReservationRequest toRequest(LazyEnvelope event) {
+        String orderId = event.getOrderId();
+        String correlationId = event.getCorrelationId() != null
+                ? event.getCorrelationId()
+                : orderId;
+        OrderCreatedPayload payload = event.payload(OrderCreatedPayload.class);
+
+        String currency = payload.getCurrency() != null
+                ? payload.getCurrency()
                 : "USD";
 
-        inventoryProcessor.processOrder(
-                orderId, correlationId, customerId, totalAmount, currency);
+        return new ReservationRequest(orderId, correlationId, payload.getCustomerId(),
+                payload.getTotalAmount(), currency, payload.getItems());
     }
 }
@@ -0,0 +1,63 @@
+package com.delivery.inventory.listener;
+
+import com.delivery.common.codec.EventCodecs;
+import com.delivery.common.codec.LazyEnvelope;
+import com.delivery.common.event.EventTypes;
+import com.delivery.common.event.Topics;
+import com.delivery.inventory.service.ReservationExpiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Settles reservations from payment outcomes: payment.authorized confirms
+ * them, payment.failed releases their stock. Only envelopes are read.
+ */
+@Component
+public class PaymentEventListener {
+
+    private static final Logger log = LoggerFactory.getLogger(PaymentEventListener.class);
+
+    private final EventCodecs eventCodecs;
+    private final ReservationExpiry reservationExpiry;
+
+    public PaymentEventListener(EventCodecs eventCodecs, ReservationExpiry reservationExpiry) {
+        this.eventCodecs = eventCodecs;
+        this.reservationExpiry = reservationExpiry;
+    }
+
+    @KafkaListener(
+            topics = Topics.PAYMENT_EVENTS,
+            groupId = "${spring.kafka.consumer.group-id}",
+            filter = "paymentEventFilter",
+            batch = "true")
+    public void handlePaymentEvents(List<byte[]> messages) {
+        Set<String> authorized = new LinkedHashSet<>();
+        Set<String> failed = new LinkedHashSet<>();
+        for (byte[] message : messages) {
+            try {
+                LazyEnvelope event = eventCodecs.read(message);
+                switch (event.getEventType()) {
+                    case EventTypes.PAYMENT_AUTHORIZED -> authorized.add(event.getOrderId());
+                    case EventTypes.PAYMENT_FAILED -> failed.add(event.getOrderId());
+                    default -> log.warn("Ignoring unknown event type: {}", event.getEventType());
+                }
+            } catch (Exception e) {
+                // An undecodable record cannot succeed on retry; skip it, keep the batch
+                log.error("Skipping unreadable payment event: {}", e.getMessage(), e);
+            }
+        }
+
+        if (!authorized.isEmpty()) {
+            reservationExpiry.confirm(authorized);
+        }
+        if (!failed.isEmpty()) {
+            reservationExpiry.release(failed);
+        }
+    }
+}
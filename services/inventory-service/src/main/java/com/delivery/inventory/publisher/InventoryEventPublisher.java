@@ -1,33 +1,45 @@
 package com.delivery.inventory.publisher;
 
+import com.delivery.common.codec.EventCodecs;
 import com.delivery.common.event.EventEnvelope;
 import com.delivery.common.event.EventTypes;
 import com.delivery.common.event.Topics;
+import com.delivery.common.kafka.EventHeaders;
 import com.delivery.inventory.dto.InventoryReservationPayload;
 import com.delivery.inventory.entity.ReservationStatus;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
 @Component
 public class InventoryEventPublisher {
 
     private static final Logger log = LoggerFactory.getLogger(InventoryEventPublisher.class);
     private static final String PRODUCER_NAME = "inventory-service";
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventCodecs eventCodecs;
+    private final long sendTimeoutMs;
 
-    public InventoryEventPublisher(KafkaTemplate<String, String> kafkaTemplate,
-            ObjectMapper objectMapper) {
+    public InventoryEventPublisher(KafkaTemplate<String, byte[]> kafkaTemplate,
+            EventCodecs eventCodecs,
+            @Value("${inventory.publisher.send-timeout-ms:10000}") long sendTimeoutMs) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.eventCodecs = eventCodecs;
+        this.sendTimeoutMs = sendTimeoutMs;
     }
 
-    public void publishInventoryEvent(String orderId, String correlationId,
+    public CompletableFuture<SendResult<String, byte[]>> publishInventoryEvent(String orderId, String correlationId,
             InventoryReservationPayload payload, ReservationStatus status) {
 
         String eventType = status == ReservationStatus.RESERVED
@@ -43,24 +55,32 @@ public class InventoryEventPublisher {
                         .payload(payload)
                         .build();
 
-        try {
-            String json = objectMapper.writeValueAsString(envelope);
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                Topics.INVENTORY_EVENTS, orderId, eventCodecs.encode(Topics.INVENTORY_EVENTS, envelope));
+        EventHeaders.write(record.headers(), envelope);
 
-            kafkaTemplate.send(Topics.INVENTORY_EVENTS, orderId, json)
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            log.error("Failed to publish {} for order={}: {}",
-                                    eventType, orderId, ex.getMessage());
-                        } else {
-                            log.info("Published {} for order={} to partition={}",
-                                    eventType, orderId,
-                                    result.getRecordMetadata().partition());
-                        }
-                    });
+        return kafkaTemplate.send(record)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish {} for order={}: {}",
+                                eventType, orderId, ex.getMessage());
+                    } else {
+                        log.info("Published {} for order={} to partition={}",
+                                eventType, orderId,
+                                result.getRecordMetadata().partition());
+                    }
+                });
+    }
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize event: {}", e.getMessage());
-            throw new RuntimeException("Event serialization failed", e);
-        }
+    /**
+     * Flush the producer once for all {@code sends} and wait for their acks.
+     *
+     * @throws ExecutionException if any send failed
+     */
+    public void flush(Collection<CompletableFuture<SendResult<String, byte[]>>> sends)
+            throws InterruptedException, ExecutionException, TimeoutException {
+        kafkaTemplate.flush();
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
     }
 }
@@ -1,10 +1,25 @@
 package com.delivery.inventory.repository;
 
+import com.delivery.inventory.dto.PendingReservation;
+import com.delivery.inventory.dto.ReservedQuantity;
 import com.delivery.inventory.entity.Reservation;
+import com.delivery.inventory.entity.ReservationStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 @Repository
 public interface ReservationRepository extends JpaRepository<Reservation, Long> {
@@ -12,4 +27,45 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     Optional<Reservation> findByOrderId(String orderId);
 
     boolean existsByOrderId(String orderId);
+
+    @Query("SELECT r.orderId FROM Reservation r")
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllOrderIds();
+
+    @Query("SELECT r.orderId FROM Reservation r WHERE r.orderId IN :orderIds")
+    Set<String> findExistingOrderIds(@Param("orderIds") Collection<String> orderIds);
+
+    @Query("""
+            SELECT new com.delivery.inventory.dto.ReservedQuantity(i.itemId, SUM(i.quantity))
+              FROM Reservation r JOIN r.items i
+             WHERE r.status IN (com.delivery.inventory.entity.ReservationStatus.RESERVED,
+                                com.delivery.inventory.entity.ReservationStatus.CONFIRMED)
+             GROUP BY i.itemId
+            """)
+    List<ReservedQuantity> sumReservedByItem();
+
+    @Query("""
+            SELECT new com.delivery.inventory.dto.PendingReservation(r.orderId, r.createdAt, r.expiresAt)
+              FROM Reservation r
+             WHERE r.status = com.delivery.inventory.entity.ReservationStatus.RESERVED
+            """)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<PendingReservation> streamPending();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            SELECT r FROM Reservation r
+             WHERE r.orderId IN :orderIds
+               AND r.status = com.delivery.inventory.entity.ReservationStatus.RESERVED
+            """)
+    List<Reservation> lockReserved(@Param("orderIds") Collection<String> orderIds);
+
+    /** Move RESERVED reservations to {@code status}; others are left alone. */
+    @Modifying
+    @Query("""
+            UPDATE Reservation r SET r.status = :status
+             WHERE r.orderId IN :orderIds
+               AND r.status = com.delivery.inventory.entity.ReservationStatus.RESERVED
+            """)
+    int updateReserved(@Param("orderIds") Collection<String> orderIds, @Param("status") ReservationStatus status);
 }
@@ -1,16 +1,30 @@
 package com.delivery.inventory.service;
 
+import com.delivery.common.dedup.DedupFilter;
 import com.delivery.inventory.dto.InventoryReservationPayload;
+import com.delivery.inventory.dto.OrderCreatedPayload.OrderItemDetail;
 import com.delivery.inventory.entity.Reservation;
 import com.delivery.inventory.entity.ReservationStatus;
+import com.delivery.inventory.entity.ReservedItem;
 import com.delivery.inventory.publisher.InventoryEventPublisher;
 import com.delivery.inventory.repository.ReservationRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class InventoryProcessor {
@@ -19,18 +33,27 @@ public class InventoryProcessor {
 
     private final ReservationRepository reservationRepository;
     private final InventoryEventPublisher eventPublisher;
+    private final StockLedger stockLedger;
+    private final DedupFilter dedupFilter;
+    private final ReservationExpiry reservationExpiry;
 
     public InventoryProcessor(ReservationRepository reservationRepository,
-            InventoryEventPublisher eventPublisher) {
+            InventoryEventPublisher eventPublisher,
+            StockLedger stockLedger,
+            DedupFilter dedupFilter,
+            ReservationExpiry reservationExpiry) {
         this.reservationRepository = reservationRepository;
         this.eventPublisher = eventPublisher;
+        this.stockLedger = stockLedger;
+        this.dedupFilter = dedupFilter;
+        this.reservationExpiry = reservationExpiry;
     }
 
     @Transactional
     public void processOrder(String orderId, String correlationId,
-            String customerId, BigDecimal totalAmount, String currency) {
+            String customerId, BigDecimal totalAmount, String currency, List<OrderItemDetail> orderItems) {
 
-        if (reservationRepository.existsByOrderId(orderId)) {
+        if (dedupFilter.isDuplicate(orderId, reservationRepository::existsByOrderId)) {
             log.info("Reservation already exists for orderId={}, skipping", orderId);
             return;
         }
@@ -38,14 +61,25 @@ public class InventoryProcessor {
         log.info("Checking inventory for orderId={}, amount={} {}",
                 orderId, totalAmount, currency);
 
-        boolean inStock = simulateStockCheck();
+        List<ReservedItem> items = toReservedItems(orderItems);
+        boolean inStock = stockLedger.reserve(items);
+        if (inStock) {
+            releaseOnRollback(items);
+        }
         ReservationStatus status = inStock
                 ? ReservationStatus.RESERVED
                 : ReservationStatus.REJECTED;
 
         Reservation reservation = Reservation.create(
-                orderId, customerId, totalAmount, currency, status);
-        reservationRepository.save(reservation);
+                orderId, customerId, totalAmount, currency, status, items,
+                inStock ? reservationExpiry.newDeadline() : null);
+        // Add before the flush, and flush before publishing: a reservation
+        // inserted by another instance fails here, and its redelivery goes to Postgres
+        dedupFilter.add(orderId);
+        reservationRepository.saveAndFlush(reservation);
+        if (inStock) {
+            reservationExpiry.track(orderId, reservation.getExpiresAt());
+        }
 
         log.info("Reservation {} for orderId={}", status, orderId);
 
@@ -55,13 +89,87 @@ public class InventoryProcessor {
         eventPublisher.publishInventoryEvent(orderId, correlationId, payload, status);
     }
 
-    /** Simulates a stock availability check. 90% of orders have stock available. */
-    private boolean simulateStockCheck() {
-        try {
-            Thread.sleep(50);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+    /**
+     * Reserve a whole poll of orders in one transaction: one existence
+     * query for the orderIds the dedup filter cannot rule out, one batched insert of the new reservations,
+     * and one producer flush for their events. The transaction commits
+     * only after every event is acked; otherwise the batch rolls back,
+     * its stock is released, and the container redelivers it.
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public void processOrders(List<ReservationRequest> requests)
+            throws InterruptedException, ExecutionException, TimeoutException {
+
+        Map<String, ReservationRequest> byOrderId = new LinkedHashMap<>();
+        for (ReservationRequest request : requests) {
+            byOrderId.putIfAbsent(request.orderId(), request);
+        }
+        Set<String> existing = dedupFilter.duplicates(byOrderId.keySet(), reservationRepository::findExistingOrderIds);
+
+        List<Reservation> reservations = new ArrayList<>(byOrderId.size());
+        for (ReservationRequest request : byOrderId.values()) {
+            if (existing.contains(request.orderId())) {
+                continue;
+            }
+            List<ReservedItem> items = toReservedItems(request.items());
+            boolean inStock = stockLedger.reserve(items);
+            if (inStock) {
+                releaseOnRollback(items);
+            }
+            reservations.add(Reservation.create(request.orderId(), request.customerId(),
+                    request.totalAmount(), request.currency(),
+                    inStock ? ReservationStatus.RESERVED : ReservationStatus.REJECTED, items,
+                    inStock ? reservationExpiry.newDeadline() : null));
+        }
+        // Added before the flush: if another instance inserted one of these,
+        // the flush fails and the redelivered poll checks them in Postgres
+        reservations.forEach(reservation -> dedupFilter.add(reservation.getOrderId()));
+        reservationRepository.saveAll(reservations);
+        reservationRepository.flush();
+        for (Reservation reservation : reservations) {
+            if (reservation.getExpiresAt() != null) {
+                reservationExpiry.track(reservation.getOrderId(), reservation.getExpiresAt());
+            }
+        }
+
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(reservations.size());
+        for (Reservation reservation : reservations) {
+            ReservationRequest request = byOrderId.get(reservation.getOrderId());
+            InventoryReservationPayload payload = InventoryReservationPayload.from(
+                    reservation.getOrderId(), reservation.getAmount(), reservation.getCurrency(),
+                    reservation.getCustomerId());
+            sends.add(eventPublisher.publishInventoryEvent(
+                    reservation.getOrderId(), request.correlationId(), payload, reservation.getStatus()));
+        }
+        eventPublisher.flush(sends);
+
+        log.info("Reservation batch: {} events, {} new, {} already processed",
+                requests.size(), reservations.size(), requests.size() - reservations.size());
+    }
+
+    /** One entry per distinct itemId, quantities summed. */
+    private static List<ReservedItem> toReservedItems(List<OrderItemDetail> orderItems) {
+        Map<String, Integer> quantities = new LinkedHashMap<>();
+        if (orderItems != null) {
+            for (OrderItemDetail item : orderItems) {
+                int quantity = item.getQuantity() != null ? item.getQuantity() : 0;
+                quantities.merge(item.getItemId(), quantity, Integer::sum);
+            }
         }
-        return Math.random() > 0.1;
+        List<ReservedItem> items = new ArrayList<>(quantities.size());
+        quantities.forEach((itemId, quantity) -> items.add(new ReservedItem(itemId, quantity)));
+        return items;
+    }
+
+    /** The ledger is not transactional; give the stock back if the reservation row is not committed. */
+    private void releaseOnRollback(List<ReservedItem> items) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    stockLedger.release(items);
+                }
+            }
+        });
     }
 }
@@ -0,0 +1,280 @@
+package com.delivery.inventory.service;
+
+import com.delivery.inventory.dto.PendingReservation;
+import com.delivery.inventory.entity.Reservation;
+import com.delivery.inventory.entity.ReservationStatus;
+import com.delivery.inventory.entity.ReservedItem;
+import com.delivery.inventory.repository.ReservationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Reservation TTLs.
+ *
+ * Every RESERVED reservation has a deadline in a {@link TimingWheel}.
+ * payment.authorized cancels it and confirms the reservation;
+ * payment.failed cancels it and releases the reservation at once; a
+ * deadline that passes releases it too. Releases are done in batches:
+ * lock the still-RESERVED rows, mark them RELEASED in one UPDATE, commit,
+ * then return their items to the {@link StockLedger}.
+ *
+ * The wheel is rebuilt from the RESERVED rows at startup. Every state
+ * change is guarded by {@code status = RESERVED} in the database, so a
+ * late timer or a replayed payment event changes nothing.
+ *
+ * inventory.reserved is sent before its reservation commits, so a payment
+ * event can arrive while the row is still invisible. payment.failed ones
+ * keep their timer and are released when it fires. payment.authorized ones
+ * are remembered and their confirm is retried every early-confirm-retry-ms
+ * until the row shows up (it commits milliseconds later), so the in-memory
+ * mark only has to survive that long; after a TTL without a row it is
+ * dropped. Timers are cancelled only once the confirm has committed.
+ */
+@Component
+public class ReservationExpiry {
+
+    private static final Logger log = LoggerFactory.getLogger(ReservationExpiry.class);
+
+    private final ReservationRepository reservationRepository;
+    private final StockLedger stockLedger;
+    private final TransactionTemplate readOnly;
+    private final ReservationExpiry self; // self-injection for @Transactional proxy
+    private final TimingWheel wheel;
+    private final Map<String, Long> confirmedEarly = new ConcurrentHashMap<>(); // orderId -> give up at
+    private final long ttlMs;
+    private final long earlyRetryMs;
+    private final int batchSize;
+    private final Counter expired;
+    private final Counter paymentFailed;
+    private final Counter confirmed;
+
+    public ReservationExpiry(ReservationRepository reservationRepository,
+            StockLedger stockLedger,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Lazy ReservationExpiry self,
+            @Value("${inventory.reservations.ttl-ms:900000}") long ttlMs,
+            @Value("${inventory.reservations.early-confirm-retry-ms:500}") long earlyRetryMs,
+            @Value("${inventory.reservations.tick-ms:100}") long tickMs,
+            @Value("${inventory.reservations.wheel-size:4096}") int wheelSize,
+            @Value("${inventory.reservations.release-batch-size:500}") int batchSize) {
+        this.reservationRepository = reservationRepository;
+        this.stockLedger = stockLedger;
+        this.readOnly = new TransactionTemplate(transactionManager);
+        this.readOnly.setReadOnly(true);
+        this.self = self;
+        this.wheel = new TimingWheel(tickMs, wheelSize, System.currentTimeMillis());
+        this.ttlMs = ttlMs;
+        this.earlyRetryMs = earlyRetryMs;
+        this.batchSize = batchSize;
+
+        this.expired = released(meterRegistry, "expired");
+        this.paymentFailed = released(meterRegistry, "payment_failed");
+        this.confirmed = Counter.builder("inventory.reservations.confirmed")
+                .description("Reservations confirmed by payment.authorized")
+                .register(meterRegistry);
+        Gauge.builder("inventory.reservations.pending", wheel, TimingWheel::size)
+                .description("RESERVED reservations waiting for payment")
+                .register(meterRegistry);
+    }
+
+    private static Counter released(MeterRegistry registry, String reason) {
+        return Counter.builder("inventory.reservations.released")
+                .description("Reservations released and their stock returned")
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    @PostConstruct
+    void armPending() {
+        readOnly.executeWithoutResult(status -> {
+            try (Stream<PendingReservation> pending = reservationRepository.streamPending()) {
+                pending.forEach(p -> wheel.schedule(p.orderId(), deadlineOf(p).toEpochMilli()));
+            }
+        });
+        log.info("Reservation TTL {} ms; {} pending reservations armed", ttlMs, wheel.size());
+    }
+
+    /** Deadline for a reservation made now. */
+    public Instant newDeadline() {
+        return Instant.now().plusMillis(ttlMs);
+    }
+
+    public void track(String orderId, Instant deadline) {
+        wheel.schedule(orderId, deadline.toEpochMilli());
+        // Already authorized: confirm() schedules before it could see this
+        // row, so re-check after scheduling and keep the short retry
+        if (confirmedEarly.containsKey(orderId)) {
+            wheel.schedule(orderId, System.currentTimeMillis() + earlyRetryMs);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.reservations.tick-ms:100}")
+    public void expire() {
+        List<String> due = wheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        try {
+            List<String> expiring = due;
+            Set<String> early = due.stream().filter(confirmedEarly::containsKey).collect(Collectors.toSet());
+            if (!early.isEmpty()) {
+                confirmEarly(early);
+                expiring = due.stream().filter(orderId -> !early.contains(orderId)).toList();
+            }
+            int released = releaseInBatches(expiring);
+            expired.increment(released);
+            log.info("Released {} expired reservations", released);
+        } catch (Exception e) {
+            // Re-arm everything that was due so the next tick retries it
+            due.forEach(orderId -> wheel.schedule(orderId, 0));
+            log.error("Releasing expired reservations failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /** payment.authorized: stop the clocks and keep the stock. */
+    public void confirm(Collection<String> orderIds) {
+        int updated = confirmBatches(orderIds);
+        if (updated == orderIds.size()) {
+            orderIds.forEach(wheel::cancel);
+            return;
+        }
+
+        // Rows that committed since the first UPDATE; a repeat is a no-op for the rest
+        Set<String> known = reservationRepository.findExistingOrderIds(orderIds);
+        updated += confirmBatches(known);
+        known.forEach(wheel::cancel);
+        long now = System.currentTimeMillis();
+        for (String orderId : orderIds) {
+            if (!known.contains(orderId)) {
+                confirmedEarly.putIfAbsent(orderId, now + ttlMs);
+                wheel.schedule(orderId, now + earlyRetryMs);
+            }
+        }
+        if (known.size() > updated) {
+            log.warn("{} authorized orders had no RESERVED reservation (already released or rejected)",
+                    known.size() - updated);
+        }
+    }
+
+    /**
+     * Retry authorized orders whose reservation was not visible yet. Ones
+     * that have a row now are settled; the rest retry again shortly, until
+     * they give up (the order never got a reservation).
+     */
+    private void confirmEarly(Set<String> orderIds) {
+        confirmBatches(orderIds);
+        Set<String> known = reservationRepository.findExistingOrderIds(orderIds);
+        long now = System.currentTimeMillis();
+        for (String orderId : orderIds) {
+            if (known.contains(orderId)) {
+                confirmedEarly.remove(orderId);
+            } else if (confirmedEarly.getOrDefault(orderId, 0L) <= now) {
+                confirmedEarly.remove(orderId);
+                log.warn("Authorized order {} never got a reservation; giving up", orderId);
+            } else {
+                wheel.schedule(orderId, now + earlyRetryMs);
+            }
+        }
+    }
+
+    private int confirmBatches(Collection<String> orderIds) {
+        int updated = 0;
+        for (List<String> batch : batches(orderIds)) {
+            updated += self.confirmBatch(batch);
+        }
+        confirmed.increment(updated);
+        return updated;
+    }
+
+    /** payment.failed: release now instead of waiting for the deadline. */
+    public void release(Collection<String> orderIds) {
+        int released = releaseInBatches(orderIds);
+        if (released < orderIds.size()) {
+            // As in confirm: catch rows that committed meanwhile. The rest keep
+            // their timers and are released when those fire.
+            Set<String> known = reservationRepository.findExistingOrderIds(orderIds);
+            released += releaseInBatches(known);
+            known.forEach(wheel::cancel);
+        } else {
+            orderIds.forEach(wheel::cancel);
+        }
+        paymentFailed.increment(released);
+    }
+
+    @Transactional
+    public int confirmBatch(List<String> orderIds) {
+        return reservationRepository.updateReserved(orderIds, ReservationStatus.CONFIRMED);
+    }
+
+    /**
+     * Lock the still-RESERVED reservations of {@code orderIds} and mark them
+     * RELEASED.
+     *
+     * @return The released reservations and the items to return to stock once this commits
+     */
+    @Transactional
+    public Released releaseBatch(List<String> orderIds) {
+        List<Reservation> held = reservationRepository.lockReserved(orderIds);
+        if (held.isEmpty()) {
+            return new Released(0, List.of());
+        }
+        List<String> heldIds = new ArrayList<>(held.size());
+        List<ReservedItem> items = new ArrayList<>();
+        for (Reservation reservation : held) {
+            heldIds.add(reservation.getOrderId());
+            items.addAll(reservation.getItems());
+        }
+        reservationRepository.updateReserved(heldIds, ReservationStatus.RELEASED);
+        return new Released(heldIds.size(), items);
+    }
+
+    public record Released(int reservations, List<ReservedItem> items) {
+    }
+
+    private int releaseInBatches(Collection<String> orderIds) {
+        int released = 0;
+        for (List<String> batch : batches(orderIds)) {
+            Released batchReleased = self.releaseBatch(batch);
+            stockLedger.release(batchReleased.items());
+            released += batchReleased.reservations();
+        }
+        return released;
+    }
+
+    private Instant deadlineOf(PendingReservation pending) {
+        return pending.expiresAt() != null
+                ? pending.expiresAt()
+                : pending.createdAt().plusMillis(ttlMs);
+    }
+
+    private List<List<String>> batches(Collection<String> orderIds) {
+        List<String> all = List.copyOf(orderIds);
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += batchSize) {
+            batches.add(all.subList(from, Math.min(from + batchSize, all.size())));
+        }
+        return batches;
+    }
+}
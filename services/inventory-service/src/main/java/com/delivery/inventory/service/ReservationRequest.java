@@ -0,0 +1,16 @@
+package com.delivery.inventory.service;
+
+import com.delivery.inventory.dto.OrderCreatedPayload.OrderItemDetail;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/** One order.created event, as handed to {@link InventoryProcessor#processOrders}. */
+public record ReservationRequest(
+        String orderId,
+        String correlationId,
+        String customerId,
+        BigDecimal totalAmount,
+        String currency,
+        List<OrderItemDetail> items) {
+}
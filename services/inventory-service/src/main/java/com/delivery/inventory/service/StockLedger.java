@@ -0,0 +1,235 @@
+package com.delivery.inventory.service;
+
+import com.delivery.inventory.config.StockProperties;
+import com.delivery.inventory.dto.ReservedQuantity;
+import com.delivery.inventory.entity.ReservedItem;
+import com.delivery.inventory.repository.ReservationRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Available stock per item, held in memory and sharded by itemId.
+ *
+ * Each shard is a primitive {@link StockMap} behind its own lock, so
+ * reservations for items on different shards run in parallel. A
+ * multi-item reservation locks the shards it touches in index order
+ * (no deadlocks), checks every item, and only then takes the stock:
+ * either all items are reserved or none are.
+ *
+ * Reservation rows are the durable record. At startup each item's
+ * stock is its configured quantity minus what RESERVED reservations
+ * hold. The ledger is per process, so only one instance may own a
+ * given stock.
+ *
+ * Items listed in {@code inventory.stock.hot-items} bypass the shard
+ * locks: their stock is a {@link StripedStock}, reserved with a CAS on a
+ * per-thread slot. An order mixing hot and regular items takes its hot
+ * items first and gives them back if the rest cannot be reserved.
+ */
+@Component
+public class StockLedger {
+
+    private static final Logger log = LoggerFactory.getLogger(StockLedger.class);
+
+    private final Shard[] shards;
+    private final int shardShift;
+    private final StockProperties properties;
+    private final ReservationRepository reservationRepository;
+    private Map<String, StripedStock> hot = Map.of();
+
+    public StockLedger(StockProperties properties, ReservationRepository reservationRepository) {
+        int count = properties.getShards() > 0
+                ? properties.getShards()
+                : Runtime.getRuntime().availableProcessors() * 4;
+        count = Math.max(2, Integer.highestOneBit(count - 1) << 1);
+        this.shards = new Shard[count];
+        for (int i = 0; i < count; i++) {
+            shards[i] = new Shard();
+        }
+        this.shardShift = 32 - Integer.numberOfTrailingZeros(count);
+        this.properties = properties;
+        this.reservationRepository = reservationRepository;
+    }
+
+    @PostConstruct
+    void load() {
+        List<ReservedQuantity> reserved = reservationRepository.sumReservedByItem();
+        Map<String, Long> hotReserved = new HashMap<>();
+        for (ReservedQuantity r : reserved) {
+            if (properties.getHotItems().contains(r.itemId())) {
+                hotReserved.put(r.itemId(), r.quantity());
+            } else {
+                shardFor(r.itemId()).stock.put(r.itemId(), initialQuantity(r.itemId()) - r.quantity());
+            }
+        }
+
+        int slots = properties.getHotSlots() > 0
+                ? properties.getHotSlots()
+                : Runtime.getRuntime().availableProcessors();
+        slots = Integer.highestOneBit(Math.max(1, slots - 1)) << 1;
+        Map<String, StripedStock> striped = new HashMap<>();
+        for (String itemId : properties.getHotItems()) {
+            striped.put(itemId, new StripedStock(slots,
+                    initialQuantity(itemId) - hotReserved.getOrDefault(itemId, 0L)));
+        }
+        hot = striped;
+
+        log.info("Stock ledger ready: {} shards, {} hot items x {} slots, {} items with active reservations",
+                shards.length, striped.size(), slots, reserved.size());
+    }
+
+    /**
+     * Reserve every item or none.
+     *
+     * @param items One entry per distinct itemId
+     * @return false if any item lacks stock or has a quantity below 1
+     */
+    public boolean reserve(List<ReservedItem> items) {
+        for (ReservedItem item : items) {
+            if (item.getQuantity() < 1) {
+                return false;
+            }
+        }
+        if (hot.isEmpty()) {
+            return reserveRegular(items);
+        }
+
+        List<ReservedItem> regular = new ArrayList<>(items.size());
+        List<ReservedItem> taken = new ArrayList<>();
+        for (ReservedItem item : items) {
+            StripedStock stock = hot.get(item.getItemId());
+            if (stock == null) {
+                regular.add(item);
+            } else if (stock.reserve(item.getQuantity())) {
+                taken.add(item);
+            } else {
+                release(taken);
+                return false;
+            }
+        }
+        if (!reserveRegular(regular)) {
+            release(taken);
+            return false;
+        }
+        return true;
+    }
+
+    /** Return previously reserved items to stock. */
+    public void release(List<ReservedItem> items) {
+        for (ReservedItem item : items) {
+            StripedStock striped = hot.get(item.getItemId());
+            if (striped != null) {
+                striped.release(item.getQuantity());
+                continue;
+            }
+            Shard shard = shardFor(item.getItemId());
+            shard.lock.lock();
+            try {
+                shard.available(item.getItemId());
+                shard.stock.add(item.getItemId(), item.getQuantity());
+            } finally {
+                shard.lock.unlock();
+            }
+        }
+    }
+
+    /** Current available quantity of one item. */
+    public long available(String itemId) {
+        StripedStock striped = hot.get(itemId);
+        if (striped != null) {
+            return striped.available();
+        }
+        Shard shard = shardFor(itemId);
+        shard.lock.lock();
+        try {
+            return shard.available(itemId);
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private boolean reserveRegular(List<ReservedItem> items) {
+        if (items.size() == 1) {
+            return reserveOne(items.get(0));
+        }
+
+        boolean[] touched = new boolean[shards.length];
+        for (ReservedItem item : items) {
+            touched[shardIndex(item.getItemId())] = true;
+        }
+        int locked = 0;
+        try {
+            for (; locked < shards.length; locked++) {
+                if (touched[locked]) {
+                    shards[locked].lock.lock();
+                }
+            }
+            for (ReservedItem item : items) {
+                if (shardFor(item.getItemId()).available(item.getItemId()) < item.getQuantity()) {
+                    return false;
+                }
+            }
+            for (ReservedItem item : items) {
+                shardFor(item.getItemId()).stock.add(item.getItemId(), -item.getQuantity());
+            }
+            return true;
+        } finally {
+            while (--locked >= 0) {
+                if (touched[locked]) {
+                    shards[locked].lock.unlock();
+                }
+            }
+        }
+    }
+
+    private boolean reserveOne(ReservedItem item) {
+        Shard shard = shardFor(item.getItemId());
+        shard.lock.lock();
+        try {
+            if (shard.available(item.getItemId()) < item.getQuantity()) {
+                return false;
+            }
+            shard.stock.add(item.getItemId(), -item.getQuantity());
+            return true;
+        } finally {
+            shard.lock.unlock();
+        }
+    }
+
+    private Shard shardFor(String itemId) {
+        return shards[shardIndex(itemId)];
+    }
+
+    // High bits of the mixed hash, so a shard's keys still spread over its map's slots
+    private int shardIndex(String itemId) {
+        return (StockMap.hash(itemId) * 0x9E3779B9) >>> shardShift;
+    }
+
+    private long initialQuantity(String itemId) {
+        return properties.getInitial().getOrDefault(itemId, properties.getDefaultQuantity());
+    }
+
+    private final class Shard {
+
+        final ReentrantLock lock = new ReentrantLock();
+        final StockMap stock = new StockMap(64);
+
+        /** Caller holds the lock. Items seen for the first time get their initial quantity. */
+        long available(String itemId) {
+            long quantity = stock.get(itemId);
+            if (quantity == StockMap.ABSENT) {
+                quantity = initialQuantity(itemId);
+                stock.put(itemId, quantity);
+            }
+            return quantity;
+        }
+    }
+}
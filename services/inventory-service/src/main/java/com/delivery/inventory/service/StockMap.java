@@ -0,0 +1,99 @@
+package com.delivery.inventory.service;
+
+/**
+ * Open-addressing map from itemId to available quantity. Values live in a
+ * {@code long[]} and cached hashes in an {@code int[]}, so lookups and
+ * updates never box. Not thread-safe: each {@link StockLedger} shard
+ * guards its own map.
+ */
+final class StockMap {
+
+    static final long ABSENT = Long.MIN_VALUE;
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private String[] keys;
+    private int[] hashes;
+    private long[] values;
+    private int size;
+
+    StockMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(8, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new String[capacity];
+        hashes = new int[capacity];
+        values = new long[capacity];
+    }
+
+    /** Quantity for {@code itemId}, or {@link #ABSENT}. */
+    long get(String itemId) {
+        int slot = find(itemId, hash(itemId));
+        return slot >= 0 ? values[slot] : ABSENT;
+    }
+
+    void put(String itemId, long quantity) {
+        int hash = hash(itemId);
+        int slot = find(itemId, hash);
+        if (slot >= 0) {
+            values[slot] = quantity;
+            return;
+        }
+        if (size + 1 > keys.length * LOAD_FACTOR) {
+            resize();
+        }
+        insert(itemId, hash, quantity);
+        size++;
+    }
+
+    /** Add {@code delta} to an existing entry. */
+    void add(String itemId, long delta) {
+        int slot = find(itemId, hash(itemId));
+        if (slot < 0) {
+            throw new IllegalStateException("Unknown item: " + itemId);
+        }
+        values[slot] += delta;
+    }
+
+    int size() {
+        return size;
+    }
+
+    private int find(String itemId, int hash) {
+        int mask = keys.length - 1;
+        for (int slot = hash & mask; keys[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && keys[slot].equals(itemId)) {
+                return slot;
+            }
+        }
+        return -1;
+    }
+
+    private void insert(String itemId, int hash, long quantity) {
+        int mask = keys.length - 1;
+        int slot = hash & mask;
+        while (keys[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = itemId;
+        hashes[slot] = hash;
+        values[slot] = quantity;
+    }
+
+    private void resize() {
+        String[] oldKeys = keys;
+        int[] oldHashes = hashes;
+        long[] oldValues = values;
+        keys = new String[oldKeys.length * 2];
+        hashes = new int[oldKeys.length * 2];
+        values = new long[oldKeys.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                insert(oldKeys[i], oldHashes[i], oldValues[i]);
+            }
+        }
+    }
+
+    static int hash(String itemId) {
+        int h = itemId.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,121 @@
+package com.delivery.inventory.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stock of one hot item, split across slots so concurrent reservations
+ * do not contend on a single counter.
+ *
+ * A thread takes stock from its own slot with one CAS. When that slot
+ * runs short it takes the item's rebalance lock, drains every slot,
+ * and either rejects (the exact total is short) or takes its quantity
+ * and spreads the rest evenly again. Every unit is always in exactly
+ * one slot or in the hands of the thread holding the lock, so the item
+ * can never be oversold.
+ *
+ * A release that lands in a slot the rebalance has already drained would
+ * be missed, and the rebalance could reject with enough stock returned.
+ * So a release marks itself in flight in its slot before checking the
+ * lock: unlocked, it adds directly and the rebalance waits for it before
+ * draining; locked, it adds under the lock, after the decision.
+ */
+final class StripedStock {
+
+    // 16 longs = 128 bytes between slots, so each sits on its own cache line pair
+    private static final int PAD = 16;
+    // Offset of a slot's in-flight release count, on the slot's own cache line
+    private static final int RELEASING = 1;
+
+    private final AtomicLongArray slots;
+    private final int mask;
+    private final ReentrantLock rebalanceLock = new ReentrantLock();
+
+    StripedStock(int slotCount, long quantity) {
+        this.mask = slotCount - 1;
+        this.slots = new AtomicLongArray(slotCount * PAD);
+        spread(quantity, 0);
+    }
+
+    boolean reserve(int quantity) {
+        int home = homeSlot();
+        int index = home * PAD;
+        long current = slots.get(index);
+        while (current >= quantity) {
+            long witness = slots.compareAndExchange(index, current, current - quantity);
+            if (witness == current) {
+                return true;
+            }
+            current = witness;
+        }
+        return reserveRebalancing(quantity, home);
+    }
+
+    void release(int quantity) {
+        int index = homeSlot() * PAD;
+        slots.getAndIncrement(index + RELEASING);
+        if (!rebalanceLock.isLocked()) {
+            slots.getAndAdd(index, quantity);
+            slots.getAndDecrement(index + RELEASING);
+            return;
+        }
+        slots.getAndDecrement(index + RELEASING);
+        rebalanceLock.lock();
+        try {
+            slots.getAndAdd(index, quantity);
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    /** Sum of all slots; exact only when nothing is in flight. */
+    long available() {
+        long total = 0;
+        for (int slot = 0; slot <= mask; slot++) {
+            total += slots.get(slot * PAD);
+        }
+        return total;
+    }
+
+    private boolean reserveRebalancing(int quantity, int home) {
+        rebalanceLock.lock();
+        try {
+            awaitReleases();
+            long total = 0;
+            for (int slot = 0; slot <= mask; slot++) {
+                total += slots.getAndSet(slot * PAD, 0);
+            }
+            boolean reserved = total >= quantity;
+            spread(reserved ? total - quantity : total, home);
+            return reserved;
+        } finally {
+            rebalanceLock.unlock();
+        }
+    }
+
+    /** Wait out releases that saw the lock free; later ones queue on the lock. */
+    private void awaitReleases() {
+        for (int slot = 0; slot <= mask; slot++) {
+            while (slots.get(slot * PAD + RELEASING) != 0) {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    /** Add {@code quantity} evenly over the slots, the remainder to {@code home}. */
+    private void spread(long quantity, int home) {
+        int count = mask + 1;
+        long share = quantity / count;
+        for (int slot = 0; slot < count; slot++) {
+            long add = slot == home ? share + quantity % count : share;
+            if (add != 0) {
+                slots.getAndAdd(slot * PAD, add);
+            }
+        }
+    }
+
+    private int homeSlot() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id * 0x9E3779B97F4A7C15L >>> 40) & mask;
+    }
+}
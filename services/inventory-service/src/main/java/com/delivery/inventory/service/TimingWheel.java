@@ -0,0 +1,139 @@
+package com.delivery.inventory.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Hashed timing wheel of deadlines keyed by orderId.
+ *
+ * Time is cut into ticks of {@code tickMs}; a deadline goes into bucket
+ * {@code tick % wheelSize} with the number of full turns still to wait.
+ * Each bucket is a doubly linked list and every key maps to its node, so
+ * schedule and cancel are O(1) whatever the number of pending keys.
+ * {@link #advance} walks only the buckets of the ticks that elapsed.
+ */
+final class TimingWheel {
+
+    private final long tickMs;
+    private final long startMs;
+    private final Node[] buckets;
+    private final int mask;
+    private final Map<String, Node> nodes = new HashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long nextTick; // first tick not yet expired
+
+    TimingWheel(long tickMs, int wheelSize, long startMs) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize) - 1) << 1;
+        this.tickMs = tickMs;
+        this.startMs = startMs;
+        this.buckets = new Node[size];
+        this.mask = size - 1;
+    }
+
+    /** Schedule {@code key} to expire at {@code deadlineMs}, replacing any earlier deadline. */
+    void schedule(String key, long deadlineMs) {
+        lock.lock();
+        try {
+            Node existing = nodes.remove(key);
+            if (existing != null) {
+                unlink(existing);
+            }
+            long tick = Math.max(Math.floorDiv(deadlineMs - startMs + tickMs - 1, tickMs), nextTick);
+            Node node = new Node(key, (tick - nextTick) / buckets.length, (int) (tick & mask));
+            link(node);
+            nodes.put(key, node);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** @return false if {@code key} was not pending */
+    boolean cancel(String key) {
+        lock.lock();
+        try {
+            Node node = nodes.remove(key);
+            if (node == null) {
+                return false;
+            }
+            unlink(node);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Remove and return every key whose deadline is at or before {@code nowMs}. */
+    List<String> advance(long nowMs) {
+        List<String> expired = new ArrayList<>();
+        long lastTick = Math.floorDiv(nowMs - startMs, tickMs);
+        lock.lock();
+        try {
+            for (; nextTick <= lastTick; nextTick++) {
+                Node node = buckets[(int) (nextTick & mask)];
+                while (node != null) {
+                    Node next = node.next;
+                    if (node.rounds <= 0) {
+                        unlink(node);
+                        nodes.remove(node.key);
+                        expired.add(node.key);
+                    } else {
+                        node.rounds--;
+                    }
+                    node = next;
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return expired;
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return nodes.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void link(Node node) {
+        Node head = buckets[node.bucket];
+        node.next = head;
+        if (head != null) {
+            head.prev = node;
+        }
+        buckets[node.bucket] = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            buckets[node.bucket] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    private static final class Node {
+
+        final String key;
+        final int bucket;
+        long rounds;
+        Node prev;
+        Node next;
+
+        Node(String key, long rounds, int bucket) {
+            this.key = key;
+            this.rounds = rounds;
+            this.bucket = bucket;
+        }
+    }
+}
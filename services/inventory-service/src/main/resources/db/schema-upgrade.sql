@@ -0,0 +1,4 @@
+-- Runs before Hibernate's ddl-auto=update, which never changes an existing
+-- CHECK constraint: drop the status check generated before the CONFIRMED
+-- and RELEASED reservation statuses existed.
+ALTER TABLE IF EXISTS reservations DROP CONSTRAINT IF EXISTS reservations_status_check;
@@ -0,0 +1,85 @@
+package com.delivery.inventory.service;
+
+import com.delivery.inventory.config.StockProperties;
+import com.delivery.inventory.entity.ReservedItem;
+import com.delivery.inventory.repository.ReservationRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Reserve latency of one SKU through {@link StockLedger}, as a hot item
+ * (striped slots) and as a regular item (shard lock), from 1 to 64 threads.
+ *
+ * Run with {@code mvn -Pjmh test-compile exec:exec}; JMH options go in
+ * {@code -Djmh.args}, e.g. {@code -Djmh.args="-f 1 -wi 2 -i 3"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StripedStockBenchmark {
+
+    private static final String SKU = "promo-sku";
+    private static final List<ReservedItem> ONE = List.of(new ReservedItem(SKU, 1));
+
+    @Param({"hot", "regular"})
+    public String path;
+
+    private StockLedger ledger;
+
+    @Setup
+    public void setUp() {
+        StockProperties properties = new StockProperties();
+        // Enough that reserve-only runs never drain it
+        properties.getInitial().put(SKU, Long.MAX_VALUE / 4);
+        if ("hot".equals(path)) {
+            properties.getHotItems().add(SKU);
+        }
+        ledger = new StockLedger(properties, mock(ReservationRepository.class));
+        ledger.load();
+    }
+
+    @Benchmark
+    public boolean reserve() {
+        return ledger.reserve(ONE);
+    }
+
+    /** An order reserved and then expired or failed at payment. */
+    @Benchmark
+    public boolean reserveAndRelease() {
+        boolean reserved = ledger.reserve(ONE);
+        ledger.release(ONE);
+        return reserved;
+    }
+
+    /** One run per thread count, 1 to 64. */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .parent(cli)
+                    .include(StripedStockBenchmark.class.getName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
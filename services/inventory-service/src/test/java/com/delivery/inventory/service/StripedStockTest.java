@@ -0,0 +1,92 @@
+package com.delivery.inventory.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedStockTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    void concurrentReservationsNeverOversell() throws Exception {
+        long quantity = 100_000;
+        StripedStock stock = new StripedStock(8, quantity);
+        AtomicLong reserved = new AtomicLong();
+
+        runConcurrently(() -> {
+            int misses = 0;
+            while (misses < 100) {
+                int want = ThreadLocalRandom.current().nextInt(1, 4);
+                if (stock.reserve(want)) {
+                    reserved.addAndGet(want);
+                    if (ThreadLocalRandom.current().nextInt(4) == 0) {
+                        stock.release(want);
+                        reserved.addAndGet(-want);
+                    }
+                } else {
+                    misses++;
+                }
+            }
+        });
+
+        assertTrue(reserved.get() <= quantity, "oversold: " + reserved.get());
+        assertEquals(quantity, reserved.get() + stock.available());
+        assertTrue(stock.available() < 3, "rejected with stock left: " + stock.available());
+    }
+
+    /**
+     * Every thread holds at most one unit and there is one unit per thread,
+     * so a reservation must never be rejected, even while a rebalance races
+     * the releases of the other threads.
+     */
+    @Test
+    void releasesAreNeverMissedByARebalance() throws Exception {
+        StripedStock stock = new StripedStock(8, THREADS);
+        AtomicLong rejected = new AtomicLong();
+
+        runConcurrently(() -> {
+            for (int i = 0; i < 200_000; i++) {
+                if (stock.reserve(1)) {
+                    stock.release(1);
+                } else {
+                    rejected.incrementAndGet();
+                }
+            }
+        });
+
+        assertEquals(0, rejected.get());
+        assertEquals(THREADS, stock.available());
+    }
+
+    private static void runConcurrently(Runnable work) throws Exception {
+        CyclicBarrier start = new CyclicBarrier(THREADS);
+        List<Thread> threads = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                    work.run();
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(failures.isEmpty(), () -> "worker failed: " + failures);
+    }
+}
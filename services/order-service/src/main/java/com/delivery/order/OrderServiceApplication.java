@@ -1,7 +1,10 @@
 package com.delivery.order;
 
+import com.delivery.common.metrics.VirtualThreadConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Entry point for the Order Service.
@@ -13,8 +16,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  *                        - @ComponentScan:
  *                        Finds @Controller, @Service, @Repository in this
  *                        package
+ *
+ * @EnableScheduling runs the @Scheduled outbox relay.
+ * @Import pulls in the shared virtual-thread monitoring from common.
  */
 @SpringBootApplication
+@Import(VirtualThreadConfig.class)
+@EnableScheduling
 public class OrderServiceApplication {
 
     public static void main(String[] args) {
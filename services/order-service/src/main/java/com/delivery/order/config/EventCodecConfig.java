@@ -0,0 +1,38 @@
+package com.delivery.order.config;
+
+import com.delivery.common.codec.EventCodecRegistry;
+import com.delivery.common.codec.EventCodecs;
+import com.delivery.common.event.EventTypes;
+import com.delivery.order.dto.OrderCreatedPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Event codecs for Kafka record values. Topics listed in
+ * {@code events.codec.binary-topics} are published in the compact binary
+ * format; incoming records are decoded in whichever format they arrive.
+ * {@code events.codec.pooled-buffers} turns per-thread frame buffer reuse on or off.
+ *
+ * The registry binds each event type this service reads or writes to its
+ * payload class, so payloads are (de)serialized without intermediate trees.
+ */
+@Configuration
+public class EventCodecConfig {
+
+    @Bean
+    public EventCodecRegistry eventCodecRegistry(ObjectMapper objectMapper) {
+        return new EventCodecRegistry(objectMapper)
+                .register(EventTypes.ORDER_CREATED, OrderCreatedPayload.class);
+    }
+
+    @Bean
+    public EventCodecs eventCodecs(EventCodecRegistry eventCodecRegistry,
+            @Value("${events.codec.binary-topics:}") List<String> binaryTopics,
+            @Value("${events.codec.pooled-buffers:true}") boolean pooledBuffers) {
+        return new EventCodecs(eventCodecRegistry, binaryTopics, pooledBuffers);
+    }
+}
@@ -1,8 +1,7 @@
 package com.delivery.order.config;
 
+import com.delivery.common.codec.EventMappers;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -21,17 +20,14 @@ public class JacksonConfig {
      * Configure ObjectMapper with Java 8 time support.
      * 
      * Without this, Instant/LocalDateTime won't serialize properly.
+     * 
+     * CONCEPT: Shared Mapper Configuration
+     * - Every service uses the same mapper setup from common (EventMappers)
+     * - Dates are written as ISO strings, not timestamps
+     * - Blackbird swaps reflection for generated accessors on hot DTOs
      */
     @Bean
     public ObjectMapper objectMapper() {
-        ObjectMapper mapper = new ObjectMapper();
-
-        // Support for java.time.Instant, LocalDateTime, etc.
-        mapper.registerModule(new JavaTimeModule());
-
-        // Write dates as ISO strings, not timestamps
-        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
-
-        return mapper;
+        return EventMappers.json();
     }
 }
@@ -0,0 +1,26 @@
+package com.delivery.order.config;
+
+import com.delivery.common.event.EventTypes;
+import com.delivery.common.kafka.EventTypeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Header-based record filters for the Kafka listeners. Records of event types
+ * a listener does not handle are dropped by the container before the value
+ * is decoded.
+ */
+@Configuration
+public class KafkaListenerConfig {
+
+    /** Event types {@code OrderStatusListener} turns into status transitions. */
+    @Bean
+    public EventTypeFilter orderStatusEventFilter() {
+        return EventTypeFilter.accepting(
+                EventTypes.INVENTORY_RESERVED,
+                EventTypes.INVENTORY_REJECTED,
+                EventTypes.PAYMENT_AUTHORIZED,
+                EventTypes.PAYMENT_FAILED,
+                EventTypes.DELIVERY_ASSIGNED);
+    }
+}
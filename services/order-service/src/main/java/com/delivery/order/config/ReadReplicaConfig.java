@@ -0,0 +1,45 @@
+package com.delivery.order.config;
+
+import com.delivery.order.replica.ReadReplicaProperties;
+import com.delivery.order.replica.ReplicaDataSources;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Read replicas for the single (unsharded) order_db.
+ *
+ * CONCEPT: Primary/Replica Split
+ * - With orders.read-replicas.enabled, the application DataSource routes
+ *   read-only transactions to the replicas in orders.read-replicas.replicas
+ *   and everything else to spring.datasource (see ReplicaRoutingDataSource)
+ * - Spring Boot's own DataSource backs off; the primary pool is still
+ *   built from spring.datasource and spring.datasource.hikari
+ *
+ * In sharded mode ShardingConfig builds the DataSource instead, with
+ * replicas per shard.
+ */
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConditionalOnExpression("${orders.read-replicas.enabled:false} and !${orders.sharding.enabled:false}")
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, Environment environment,
+            ReadReplicaProperties properties, ReplicaDataSources replicas) {
+        HikariDataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(primary));
+        primary.setPoolName("order-primary");
+        return replicas.route("primary", primary, properties.getReplicas());
+    }
+}
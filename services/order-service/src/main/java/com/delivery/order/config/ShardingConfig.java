@@ -0,0 +1,74 @@
+package com.delivery.order.config;
+
+import com.delivery.order.replica.ReplicaDataSources;
+import com.delivery.order.shard.ShardRoutingDataSource;
+import com.delivery.order.shard.ShardingProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Sharded persistence for orders.
+ *
+ * CONCEPT: Routing DataSource
+ * - With orders.sharding.enabled, the application DataSource is a
+ *   ShardRoutingDataSource over one Hikari pool per configured shard;
+ *   Spring Boot's single-database DataSource backs off
+ * - JPA, Spring Data repositories and JdbcTemplate are unchanged: each
+ *   transaction gets its connection from the shard the thread is bound to
+ *
+ * Each shard's schema is created from db/shard-schema.sql at startup.
+ * A shard with replicas listed routes its read-only transactions to them
+ * (see ReplicaDataSources).
+ */
+@Configuration
+@EnableConfigurationProperties(ShardingProperties.class)
+public class ShardingConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(ShardingConfig.class);
+
+    private static final long SEQUENCE_STRIDE = 1_000_000_000_000_000L;
+
+    @Bean
+    @ConditionalOnProperty(name = "orders.sharding.enabled", havingValue = "true")
+    public ShardRoutingDataSource dataSource(ShardingProperties properties, ReplicaDataSources replicas)
+            throws IOException, SQLException {
+        String schema = new ClassPathResource("db/shard-schema.sql")
+                .getContentAsString(StandardCharsets.UTF_8);
+
+        List<DataSource> pools = new ArrayList<>();
+        for (int i = 0; i < properties.getShards().size(); i++) {
+            ShardingProperties.Shard shard = properties.getShards().get(i);
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("order-" + shard.getName());
+            pool.setJdbcUrl(shard.getUrl());
+            pool.setUsername(shard.getUsername());
+            pool.setPassword(shard.getPassword());
+            pool.setMaximumPoolSize(shard.getMaximumPoolSize());
+
+            String sequenceStart = String.valueOf(i * SEQUENCE_STRIDE + 1);
+            try (Connection connection = pool.getConnection()) {
+                ScriptUtils.executeSqlScript(connection, new ByteArrayResource(
+                        schema.replace("${sequenceStart}", sequenceStart).getBytes(StandardCharsets.UTF_8)));
+            }
+            log.info("Shard {} ready: {}", shard.getName(), shard.getUrl());
+            pools.add(replicas.route(shard.getName(), pool, shard.getReplicas()));
+        }
+        return new ShardRoutingDataSource(pools);
+    }
+}
@@ -0,0 +1,95 @@
+package com.delivery.order.controller;
+
+import com.delivery.order.dto.HistoryCursor;
+import com.delivery.order.dto.OrderSummary;
+import com.delivery.order.service.OrderHistoryService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+
+/**
+ * REST controller for a customer's order history.
+ * 
+ * Endpoints:
+ * - GET /api/customers/{customerId}/orders?limit=50&cursor=... → One page, newest first
+ * 
+ * CONCEPT: StreamingResponseBody
+ * - The page is written to the response as rows arrive from the database,
+ *   so memory per request stays constant however large `limit` is
+ * - The body is {"customerId", "orders": [...], "nextCursor"}; nextCursor
+ *   comes last because it is only known after the last row, and is null
+ *   on the final page
+ */
+@RestController
+@RequestMapping("/api/customers")
+public class CustomerOrderController {
+
+    private final OrderHistoryService orderHistoryService;
+    private final ObjectMapper objectMapper;
+    private final int maxPageSize;
+
+    public CustomerOrderController(OrderHistoryService orderHistoryService,
+            ObjectMapper objectMapper,
+            @Value("${orders.history.max-page-size:500}") int maxPageSize) {
+        this.orderHistoryService = orderHistoryService;
+        this.objectMapper = objectMapper;
+        this.maxPageSize = maxPageSize;
+    }
+
+    /**
+     * Get one page of a customer's orders.
+     * 
+     * @param limit  Page size (1 to orders.history.max-page-size)
+     * @param cursor nextCursor from the previous page; omit for the first page
+     */
+    @GetMapping("/{customerId}/orders")
+    public ResponseEntity<?> getOrders(@PathVariable String customerId,
+            @RequestParam(defaultValue = "${orders.history.default-page-size:50}") int limit,
+            @RequestParam(required = false) String cursor) {
+        if (limit < 1 || limit > maxPageSize) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("error", "limit must be between 1 and " + maxPageSize));
+        }
+        HistoryCursor after;
+        try {
+            after = cursor != null ? HistoryCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator json = objectMapper.createGenerator(out)) {
+                json.writeStartObject();
+                json.writeStringField("customerId", customerId);
+                json.writeArrayFieldStart("orders");
+
+                OrderSummary[] last = {null};
+                int count = orderHistoryService.forEachOrder(customerId, after, limit, order -> {
+                    try {
+                        json.writeObject(order);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                    last[0] = order;
+                });
+
+                json.writeEndArray();
+                json.writeStringField("nextCursor", count == limit ? last[0].cursor().encode() : null);
+                json.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+}
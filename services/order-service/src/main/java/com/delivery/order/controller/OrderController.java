@@ -1,14 +1,30 @@
 package com.delivery.order.controller;
 
 import com.delivery.order.dto.OrderRequest;
+import com.delivery.order.dto.OrderResponse;
 import com.delivery.order.entity.Order;
+import com.delivery.order.service.AdmissionLimiter;
+import com.delivery.order.service.CustomerRateLimiter;
+import com.delivery.order.service.IdempotencyKeyReuseException;
+import com.delivery.order.service.IdempotencyService;
+import com.delivery.order.service.IdempotencyService.StoredResponse;
 import com.delivery.order.service.OrderService;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -21,6 +37,7 @@ import java.util.Map;
  * 
  * Endpoints:
  * - POST /api/orders → Create a new order
+ * - POST /api/orders/batch → Create many orders (JSON array or NDJSON)
  * - GET /api/orders/{orderId} → Get order by ID
  */
 @RestController
@@ -28,11 +45,31 @@ import java.util.Map;
 public class OrderController {
 
     private static final Logger log = LoggerFactory.getLogger(OrderController.class);
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    private static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
 
     private final OrderService orderService;
+    private final IdempotencyService idempotencyService;
+    private final AdmissionLimiter admissionLimiter;
+    private final CustomerRateLimiter customerRateLimiter;
+    private final ObjectReader orderReader;
+    private final int batchChunkSize;
+    private final String retryAfterSeconds;
 
-    public OrderController(OrderService orderService) {
+    public OrderController(OrderService orderService,
+            IdempotencyService idempotencyService,
+            AdmissionLimiter admissionLimiter,
+            CustomerRateLimiter customerRateLimiter,
+            ObjectMapper objectMapper,
+            @Value("${orders.batch.chunk-size:500}") int batchChunkSize,
+            @Value("${orders.admission.retry-after-seconds:1}") int retryAfterSeconds) {
         this.orderService = orderService;
+        this.idempotencyService = idempotencyService;
+        this.admissionLimiter = admissionLimiter;
+        this.customerRateLimiter = customerRateLimiter;
+        this.orderReader = objectMapper.readerFor(OrderRequest.class);
+        this.batchChunkSize = batchChunkSize;
+        this.retryAfterSeconds = String.valueOf(retryAfterSeconds);
     }
 
     /**
@@ -42,23 +79,60 @@ public class OrderController {
      * - @PostMapping maps POST requests to this method
      * - @RequestBody tells Spring to deserialize the JSON body into OrderRequest
      * - ResponseEntity lets us control the HTTP status code
+     * 
+     * CONCEPT: Idempotency-Key
+     * - Clients may send an Idempotency-Key header (e.g. a UUID per order)
+     * - A retry with the same key gets the original response back, marked
+     *   with Idempotent-Replayed: true, and no second order is created
+     * - The same key with a different body is rejected with 422
+     * 
+     * CONCEPT: Load Shedding
+     * - Past the adaptive concurrency limit (see AdmissionLimiter) the
+     *   request is rejected at once with 503 + Retry-After, so admitted
+     *   requests keep their latency instead of everyone timing out together
+     * - Before that, each customer is held to its own token bucket (see
+     *   CustomerRateLimiter); over it, the request gets 429 + Retry-After
      */
     @PostMapping
-    public ResponseEntity<?> createOrder(@RequestBody OrderRequest request) {
+    public ResponseEntity<?> createOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @RequestBody OrderRequest request) {
         log.info("Received order request from customer: {}", request.getCustomerId());
 
-        try {
-            Order order = orderService.createOrder(request);
+        long retryAfterMillis = customerRateLimiter.tryAcquire(request.getCustomerId());
+        if (retryAfterMillis > 0) {
+            log.debug("Rate limiting customer {}: retry in {} ms", request.getCustomerId(), retryAfterMillis);
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf((retryAfterMillis + 999) / 1000))
+                    .body(Map.of("error", "Too many orders for customer " + request.getCustomerId()));
+        }
+
+        AdmissionLimiter.Permit permit = admissionLimiter.tryAcquire();
+        if (permit == null) {
+            log.warn("Shedding order request: concurrency limit {} reached", admissionLimiter.getLimit());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .body(Map.of("error", "Order service overloaded, retry later"));
+        }
+
+        try (permit) {
+            if (idempotencyKey == null || idempotencyKey.isBlank()) {
+                Order order = orderService.placeOrder(request, null);
+                return ResponseEntity.status(HttpStatus.CREATED).body(OrderResponse.from(order));
+            }
 
-            // Return a clean response (not the full entity to avoid circular refs)
-            return ResponseEntity.status(HttpStatus.CREATED).body(Map.of(
-                    "orderId", order.getOrderId(),
-                    "customerId", order.getCustomerId(),
-                    "totalAmount", order.getTotalAmount(),
-                    "currency", order.getCurrency(),
-                    "status", order.getStatus().name(),
-                    "createdAt", order.getCreatedAt().toString()));
+            StoredResponse response = idempotencyService.execute(idempotencyKey, request,
+                    () -> orderService.placeOrder(request, idempotencyKey));
 
+            // The stored body is already JSON; send it as-is
+            return ResponseEntity.status(response.statusCode())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .header(IDEMPOTENT_REPLAYED, String.valueOf(response.replayed()))
+                    .body(response.body());
+
+        } catch (IdempotencyKeyReuseException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY)
+                    .body(Map.of("error", e.getMessage()));
         } catch (Exception e) {
             log.error("Failed to create order: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -67,20 +141,97 @@ public class OrderController {
     }
 
     /**
-     * Get an order by its business ID.
+     * Create many orders in one call.
+     * 
+     * CONCEPT: Streaming Bulk Ingestion
+     * - The body is either a JSON array of orders or NDJSON (one order per
+     *   line); MappingIterator reads both, one order at a time
+     * - Orders are persisted in chunks (orders.batch.chunk-size), one
+     *   transaction and a few batched INSERTs per chunk
+     * - Invalid orders are rejected individually; valid ones still go in
+     * 
+     * Response: one result per input order, in input order, e.g.
+     * {"index": 0, "orderId": "...", "status": "CREATED"} or
+     * {"index": 1, "error": "customerId is required"}
+     */
+    @PostMapping(value = "/batch", consumes = {
+            MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_NDJSON_VALUE })
+    public ResponseEntity<?> createOrders(InputStream body) {
+        List<Map<String, Object>> results = new ArrayList<>();
+        List<OrderRequest> chunk = new ArrayList<>(batchChunkSize);
+        List<Integer> chunkIndexes = new ArrayList<>(batchChunkSize);
+        int created = 0;
+        int index = 0;
+
+        try (MappingIterator<OrderRequest> orders = orderReader.readValues(body)) {
+            while (orders.hasNextValue()) {
+                OrderRequest request = orders.nextValue();
+                String error = orderService.validate(request);
+                if (error != null) {
+                    results.add(Map.of("index", index, "error", error));
+                } else {
+                    chunk.add(request);
+                    chunkIndexes.add(index);
+                    if (chunk.size() == batchChunkSize) {
+                        created += persistChunk(chunk, chunkIndexes, results);
+                    }
+                }
+                index++;
+            }
+        } catch (IOException e) {
+            // Malformed body: keep the orders read so far, report where parsing stopped
+            log.warn("Batch body unreadable at order {}: {}", index, e.getMessage());
+            results.add(Map.of("index", index, "error", "Unreadable order: " + e.getMessage()));
+        }
+        created += persistChunk(chunk, chunkIndexes, results);
+
+        results.sort((a, b) -> Integer.compare((Integer) a.get("index"), (Integer) b.get("index")));
+        log.info("Batch request: {} orders, {} created", index, created);
+
+        return ResponseEntity.ok(Map.of(
+                "received", index,
+                "created", created,
+                "results", results));
+    }
+
+    /**
+     * Persist one chunk and record a result per order. A failed chunk is
+     * reported against each of its orders; later chunks still proceed.
+     */
+    private int persistChunk(List<OrderRequest> chunk, List<Integer> chunkIndexes,
+            List<Map<String, Object>> results) {
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        int created = 0;
+        try {
+            List<Order> orders = orderService.createOrders(chunk);
+            for (int i = 0; i < orders.size(); i++) {
+                results.add(Map.of(
+                        "index", chunkIndexes.get(i),
+                        "orderId", orders.get(i).getOrderId(),
+                        "status", orders.get(i).getStatus().name()));
+            }
+            created = orders.size();
+        } catch (Exception e) {
+            log.error("Failed to persist batch chunk of {} orders: {}", chunk.size(), e.getMessage(), e);
+            for (Integer i : chunkIndexes) {
+                results.add(Map.of("index", i, "error", "Failed to create order: " + e.getMessage()));
+            }
+        }
+        chunk.clear();
+        chunkIndexes.clear();
+        return created;
+    }
+
+    /**
+     * Get an order by its business ID (served from the near cache when warm).
      */
     @GetMapping("/{orderId}")
     public ResponseEntity<?> getOrder(@PathVariable String orderId) {
         try {
-            Order order = orderService.getOrder(orderId);
-
-            return ResponseEntity.ok(Map.of(
-                    "orderId", order.getOrderId(),
-                    "customerId", order.getCustomerId(),
-                    "totalAmount", order.getTotalAmount(),
-                    "currency", order.getCurrency(),
-                    "status", order.getStatus().name(),
-                    "createdAt", order.getCreatedAt().toString()));
+            return ResponseEntity.ok(orderService.getOrderResponse(orderId));
 
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
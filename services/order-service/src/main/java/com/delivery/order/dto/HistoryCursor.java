@@ -0,0 +1,48 @@
+package com.delivery.order.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Comparator;
+
+/**
+ * Keyset position in a customer's order history: the (createdAt, id) of
+ * the last order on the previous page.
+ * 
+ * CONCEPT: Opaque Cursor
+ * - Clients pass back the token they were given; they never build it, so
+ *   the encoding can change without breaking them
+ * - Base64url of "epochSecond.nano:id"
+ * 
+ * History is newest first, so the next page is everything strictly
+ * before this position.
+ */
+public record HistoryCursor(Instant createdAt, long id) {
+
+    /** History order: newest first, id breaking ties (ids are unique across shards). */
+    public static final Comparator<HistoryCursor> NEWEST_FIRST = Comparator
+            .comparing(HistoryCursor::createdAt)
+            .thenComparingLong(HistoryCursor::id)
+            .reversed();
+
+    public String encode() {
+        String raw = createdAt.getEpochSecond() + "." + createdAt.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code token} was not produced by {@link #encode()}
+     */
+    public static HistoryCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int dot = raw.indexOf('.');
+            int colon = raw.indexOf(':');
+            Instant createdAt = Instant.ofEpochSecond(
+                    Long.parseLong(raw.substring(0, dot)), Long.parseLong(raw.substring(dot + 1, colon)));
+            return new HistoryCursor(createdAt, Long.parseLong(raw.substring(colon + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.delivery.order.dto;
+
+import com.delivery.order.entity.Order;
+
+import java.math.BigDecimal;
+
+/**
+ * Outgoing DTO for the order endpoints.
+ * 
+ * A clean response (not the full entity, which would drag in items and
+ * circular references). Also the body stored for Idempotency-Key replays.
+ */
+public class OrderResponse {
+
+    private String orderId;
+    private String customerId;
+    private BigDecimal totalAmount;
+    private String currency;
+    private String status;
+    private String createdAt;
+
+    // Default constructor for Jackson
+    public OrderResponse() {
+    }
+
+    // Factory method
+    public static OrderResponse from(Order order) {
+        OrderResponse response = new OrderResponse();
+        response.orderId = order.getOrderId();
+        response.customerId = order.getCustomerId();
+        response.totalAmount = order.getTotalAmount();
+        response.currency = order.getCurrency();
+        response.status = order.getStatus().name();
+        response.createdAt = order.getCreatedAt().toString();
+        return response;
+    }
+
+    // Getters
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getCreatedAt() {
+        return createdAt;
+    }
+}
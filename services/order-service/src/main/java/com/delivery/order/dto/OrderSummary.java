@@ -0,0 +1,58 @@
+package com.delivery.order.dto;
+
+import com.delivery.order.entity.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+/**
+ * One row of a customer's order history.
+ * 
+ * Built directly by the history query (JPQL constructor expression), so
+ * listing orders never loads entities or their items.
+ */
+public class OrderSummary {
+
+    private final long id;
+    private final Instant created;
+    private final String orderId;
+    private final BigDecimal totalAmount;
+    private final String currency;
+    private final String status;
+
+    public OrderSummary(Long id, String orderId, OrderStatus status, BigDecimal totalAmount,
+            String currency, Instant createdAt) {
+        this.id = id;
+        this.created = createdAt;
+        this.orderId = orderId;
+        this.totalAmount = totalAmount;
+        this.currency = currency;
+        this.status = status.name();
+    }
+
+    /** Position of this row in the history, for the next page's cursor (not serialized). */
+    public HistoryCursor cursor() {
+        return new HistoryCursor(created, id);
+    }
+
+    // Getters
+    public String getOrderId() {
+        return orderId;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public String getCreatedAt() {
+        return created.toString();
+    }
+}
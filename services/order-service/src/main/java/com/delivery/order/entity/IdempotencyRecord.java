@@ -0,0 +1,104 @@
+package com.delivery.order.entity;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+/**
+ * The stored outcome of a POST carrying an Idempotency-Key.
+ * 
+ * CONCEPT: Durable Idempotency
+ * - Inserted in the SAME transaction as the order it created, so a key
+ *   is recorded if and only if its order exists
+ * - The key is the primary key: two pods racing on one key cannot both
+ *   commit — the loser hits the constraint and replays the winner's row
+ * - The in-process cache in IdempotencyService sits in front of this
+ *   table; this is the fallback after a restart or on another pod
+ */
+@Entity
+@Table(name = "idempotency_records")
+public class IdempotencyRecord implements Persistable<String> {
+
+    @Id
+    @Column(name = "idempotency_key", length = 255)
+    private String key;
+
+    /**
+     * SHA-256 of the request body; a key reused with a different body is rejected.
+     */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private Integer statusCode;
+
+    @Column(nullable = false, columnDefinition = "text")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    /**
+     * CONCEPT: Persistable
+     * - The id is assigned, so Spring Data would otherwise call merge(),
+     *   which silently UPDATEs an existing row with the same key
+     * - Marking new records as new makes save() call persist(), which
+     *   INSERTs and lets the primary key reject the duplicate
+     */
+    @Transient
+    private boolean isNew = true;
+
+    // Default constructor for JPA
+    public IdempotencyRecord() {
+    }
+
+    // Factory method
+    public static IdempotencyRecord create(String key, String requestHash,
+            int statusCode, String responseBody) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.key = key;
+        record.requestHash = requestHash;
+        record.statusCode = statusCode;
+        record.responseBody = responseBody;
+        record.createdAt = Instant.now();
+        return record;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() {
+        return key;
+    }
+
+    @Override
+    public boolean isNew() {
+        return isNew;
+    }
+
+    // Getters
+    public String getKey() {
+        return key;
+    }
+
+    public String getRequestHash() {
+        return requestHash;
+    }
+
+    public Integer getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,28 @@
+package com.delivery.order.entity;
+
+/**
+ * Where an order's line items are written (orders.items.layout).
+ * 
+ * CONCEPT: Expand / Migrate / Contract
+ * - TABLE: one order_items row per item (the original layout)
+ * - DUAL: both, so the JSONB column fills up while readers of
+ *   order_items keep working; run the backfill in this mode
+ * - JSONB: only orders.line_items; one INSERT per order regardless of
+ *   item count, and no join to read the items back
+ * 
+ * Reads never depend on the layout: an order uses its JSONB lines when
+ * present and falls back to order_items otherwise.
+ */
+public enum ItemsLayout {
+    TABLE,
+    DUAL,
+    JSONB;
+
+    public boolean writesTable() {
+        return this != JSONB;
+    }
+
+    public boolean writesJson() {
+        return this != TABLE;
+    }
+}
@@ -1,11 +1,13 @@
 package com.delivery.order.entity;
 
+import com.delivery.common.id.TimeOrderedIds;
 import jakarta.persistence.*;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.UUID;
 
 /**
  * Order entity — persisted to Postgres.
@@ -20,17 +22,37 @@ import java.util.UUID;
  * - One Order has many OrderItems
  * - CascadeType.ALL = when we save/delete Order, items are saved/deleted too
  * - orphanRemoval = if an item is removed from the list, it's deleted from DB
+ * 
+ * Updates and deletes evict the order from the near cache (see OrderCacheInvalidator).
+ * 
+ * The (customer_id, created_at, id) index serves the customer order
+ * history: one index range scan per page, in page order (see OrderHistoryService).
+ * 
+ * order_id is unique on a plain orders table. A partitioned table can only
+ * enforce (order_id, created_at), which OrderPartitionManager creates; the
+ * column's unique flag is only rendered when ddl-auto creates the table, so
+ * it never tries to add unique (order_id) to the partitioned parent.
  */
 @Entity
-@Table(name = "orders")
+@Table(name = "orders", indexes = @Index(name = "idx_orders_customer_created_id",
+        columnList = "customer_id, created_at, id"))
+@EntityListeners(OrderCacheInvalidator.class)
 public class Order {
 
+    /**
+     * CONCEPT: Pooled Sequence
+     * - IDENTITY ids are only known after each INSERT, which forces
+     *   Hibernate to send inserts one at a time (no JDBC batching)
+     * - A sequence with allocationSize = 50 hands out ids in blocks of 50,
+     *   one database call per block, and lets inserts be batched
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", allocationSize = 50)
     private Long id;
 
     /**
-     * Business identifier for the order (UUID string).
+     * Business identifier for the order (time-ordered UUIDv7 string).
      * This is what we use in Kafka events and across services.
      * Different from the database primary key (id).
      */
@@ -62,6 +84,12 @@ public class Order {
     @Column(nullable = false)
     private OrderStatus status;
 
+    /**
+     * When the event behind the current status occurred (producer time).
+     * Status updates carrying an older occurredAt are stale and dropped.
+     */
+    private Instant statusOccurredAt;
+
     /**
      * When the order was created.
      */
@@ -81,22 +109,48 @@ public class Order {
     @OneToMany(mappedBy = "order", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<OrderItem> items = new ArrayList<>();
 
+    /**
+     * Line items stored in the order row itself (see ItemsLayout).
+     * 
+     * CONCEPT: JSONB Column
+     * - Items are only ever read with their order, never queried on their own
+     * - Stored as one JSONB value, N items cost no extra INSERTs and
+     *   reading them back needs no join
+     * - Null for orders written with the TABLE layout and not yet backfilled
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(columnDefinition = "jsonb")
+    private List<OrderLine> lineItems;
+
     // Default constructor for JPA
     public Order() {
     }
 
     /**
      * Factory method to create a new order.
-     * Generates a UUID for orderId and sets initial status to CREATED.
+     * Generates a time-ordered orderId and sets initial status to CREATED.
+     * 
+     * CONCEPT: Time-Ordered IDs
+     * - Random UUIDs scatter inserts across the unique index on order_id
+     * - UUIDv7 starts with a timestamp, so new orders append to the index edge
      */
     public static Order create(String customerId, String currency) {
+        return create(TimeOrderedIds.next(), customerId, currency);
+    }
+
+    /**
+     * Same as {@link #create(String, String)} with a caller-chosen orderId
+     * (in sharded mode, one that hashes to the target shard).
+     */
+    public static Order create(String orderId, String customerId, String currency) {
         Order order = new Order();
-        order.orderId = UUID.randomUUID().toString();
+        order.orderId = orderId;
         order.customerId = customerId;
         order.currency = currency;
         order.status = OrderStatus.CREATED;
         order.totalAmount = BigDecimal.ZERO;
         order.createdAt = Instant.now();
+        order.statusOccurredAt = order.createdAt;
         return order;
     }
 
@@ -108,12 +162,28 @@ public class Order {
         recalculateTotal();
     }
 
+    /**
+     * Add an item, written to order_items, to the JSONB column, or both.
+     */
+    public void addItem(String itemId, Integer quantity, BigDecimal unitPrice, ItemsLayout layout) {
+        if (layout.writesTable()) {
+            items.add(OrderItem.create(this, itemId, quantity, unitPrice));
+        }
+        if (layout.writesJson()) {
+            if (lineItems == null) {
+                lineItems = new ArrayList<>();
+            }
+            lineItems.add(new OrderLine(itemId, quantity, unitPrice));
+        }
+        recalculateTotal();
+    }
+
     /**
      * Recalculate total amount from all line items.
      */
     private void recalculateTotal() {
-        this.totalAmount = items.stream()
-                .map(OrderItem::getLineTotal)
+        this.totalAmount = getLines().stream()
+                .map(OrderLine::lineTotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
 
@@ -153,6 +223,10 @@ public class Order {
         return status;
     }
 
+    public Instant getStatusOccurredAt() {
+        return statusOccurredAt;
+    }
+
     public Instant getCreatedAt() {
         return createdAt;
     }
@@ -164,4 +238,18 @@ public class Order {
     public List<OrderItem> getItems() {
         return items;
     }
+
+    /**
+     * The order's line items, whichever layout they were written with.
+     * Falls back to order_items (a lazy load) only for orders without
+     * the JSONB column.
+     */
+    public List<OrderLine> getLines() {
+        if (lineItems != null) {
+            return lineItems;
+        }
+        return items.stream()
+                .map(item -> new OrderLine(item.getItemId(), item.getQuantity(), item.getUnitPrice()))
+                .toList();
+    }
 }
@@ -0,0 +1,32 @@
+package com.delivery.order.entity;
+
+import com.delivery.order.service.OrderCache;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that evicts an order from the near cache whenever
+ * Hibernate updates or deletes its row.
+ *
+ * CONCEPT: Spring-managed Entity Listener
+ * - Spring Boot hands Hibernate a bean container, so this listener is a
+ *   regular bean and can have OrderCache injected
+ * - Bulk JDBC/JPQL updates bypass entity callbacks; code issuing them
+ *   must call {@link OrderCache#invalidate} itself
+ */
+@Component
+public class OrderCacheInvalidator {
+
+    private final OrderCache orderCache;
+
+    public OrderCacheInvalidator(OrderCache orderCache) {
+        this.orderCache = orderCache;
+    }
+
+    @PostUpdate
+    @PostRemove
+    void evict(Order order) {
+        orderCache.invalidate(order.getOrderId());
+    }
+}
@@ -0,0 +1,19 @@
+package com.delivery.order.entity;
+
+import java.math.BigDecimal;
+
+/**
+ * A line item stored inside the order row (orders.line_items, JSONB).
+ * 
+ * Same fields as OrderItem, without its own id or foreign key: a value,
+ * not an entity.
+ */
+public record OrderLine(String itemId, Integer quantity, BigDecimal unitPrice) {
+
+    /**
+     * Line total = quantity × unitPrice
+     */
+    public BigDecimal lineTotal() {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+}
@@ -5,14 +5,18 @@ package com.delivery.order.entity;
  * 
  * CONCEPT: State Machine
  * Orders transition through these states as events flow through the system:
- * CREATED → INVENTORY_RESERVED → PAYMENT_AUTHORIZED (happy path)
+ * CREATED → INVENTORY_RESERVED → PAYMENT_AUTHORIZED → DELIVERY_ASSIGNED (happy path)
  * CREATED → INVENTORY_REJECTED (no stock)
  * CREATED → INVENTORY_RESERVED → PAYMENT_FAILED (payment declined)
+ * 
+ * Transitions after CREATED are applied by OrderStatusListener from the
+ * downstream inventory, payment and delivery events.
  */
 public enum OrderStatus {
     CREATED, // Order placed, awaiting inventory check
     INVENTORY_RESERVED, // Stock reserved, awaiting payment
     INVENTORY_REJECTED, // Insufficient stock
     PAYMENT_AUTHORIZED, // Payment successful, ready for delivery
-    PAYMENT_FAILED // Payment declined
+    PAYMENT_FAILED, // Payment declined
+    DELIVERY_ASSIGNED // Driver assigned, ETA set
 }
@@ -0,0 +1,120 @@
+package com.delivery.order.entity;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * An event waiting to be relayed to Kafka.
+ *
+ * CONCEPT: Transactional Outbox
+ * - The event is inserted in the SAME transaction as the Order it describes
+ * - If the order rolls back, so does the event; if it commits, the event
+ *   is guaranteed to be published eventually
+ * - OutboxRelay reads these rows, sends them, and deletes them
+ *
+ * The record value is stored already encoded (JSON or binary, per topic),
+ * so the relay only moves bytes. The header fields are kept as columns and
+ * turned back into Kafka record headers when sent.
+ */
+@Entity
+@Table(name = "outbox_events")
+public class OutboxEvent {
+
+    /**
+     * Relay order. Sequence blocks are handed out per pod, so this is
+     * insertion order per pod, not globally.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    /**
+     * Kafka partition key (the orderId).
+     */
+    @Column(nullable = false)
+    private String recordKey;
+
+    @Column(nullable = false)
+    private byte[] recordValue;
+
+    @Column(nullable = false)
+    private String eventId;
+
+    @Column(nullable = false)
+    private String eventType;
+
+    private String correlationId;
+
+    private Integer schemaVersion;
+
+    private Instant occurredAt;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Default constructor for JPA
+    public OutboxEvent() {
+    }
+
+    // Factory method
+    public static OutboxEvent create(String topic, String recordKey, byte[] recordValue,
+            String eventId, String eventType, String correlationId,
+            Integer schemaVersion, Instant occurredAt) {
+        OutboxEvent event = new OutboxEvent();
+        event.topic = topic;
+        event.recordKey = recordKey;
+        event.recordValue = recordValue;
+        event.eventId = eventId;
+        event.eventType = eventType;
+        event.correlationId = correlationId;
+        event.schemaVersion = schemaVersion;
+        event.occurredAt = occurredAt;
+        event.createdAt = Instant.now();
+        return event;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public String getTopic() {
+        return topic;
+    }
+
+    public String getRecordKey() {
+        return recordKey;
+    }
+
+    public byte[] getRecordValue() {
+        return recordValue;
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public String getEventType() {
+        return eventType;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public Integer getSchemaVersion() {
+        return schemaVersion;
+    }
+
+    public Instant getOccurredAt() {
+        return occurredAt;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+}
@@ -0,0 +1,91 @@
+package com.delivery.order.listener;
+
+import com.delivery.common.codec.EventCodecs;
+import com.delivery.common.codec.LazyEnvelope;
+import com.delivery.common.event.EventTypes;
+import com.delivery.common.event.Topics;
+import com.delivery.order.entity.OrderStatus;
+import com.delivery.order.service.OrderStatusProjector;
+import com.delivery.order.service.StatusTransition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps Order.status current from the downstream services' events, so
+ * GET /api/orders/{orderId} can answer with the real status itself.
+ *
+ * CONCEPT: Batch Listener
+ * - Each poll arrives as one list; the whole list becomes one
+ *   OrderStatusProjector.apply call (one transaction, one JDBC batch)
+ * - Only the envelope is read (event type, orderId, occurredAt); payloads
+ *   are never decoded
+ * - If the batch fails, the container redelivers it; the occurredAt guard
+ *   makes the re-applied updates no-ops
+ */
+@Component
+public class OrderStatusListener {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusListener.class);
+
+    private final EventCodecs eventCodecs;
+    private final OrderStatusProjector orderStatusProjector;
+
+    public OrderStatusListener(EventCodecs eventCodecs, OrderStatusProjector orderStatusProjector) {
+        this.eventCodecs = eventCodecs;
+        this.orderStatusProjector = orderStatusProjector;
+    }
+
+    @KafkaListener(
+            topics = {
+                    Topics.INVENTORY_EVENTS,
+                    Topics.PAYMENT_EVENTS,
+                    Topics.DELIVERY_EVENTS
+            },
+            groupId = "${spring.kafka.consumer.group-id}",
+            filter = "orderStatusEventFilter",
+            batch = "true")
+    public void handleEvents(List<byte[]> messages) {
+        List<StatusTransition> transitions = new ArrayList<>(messages.size());
+        for (byte[] message : messages) {
+            try {
+                LazyEnvelope event = eventCodecs.read(message);
+                OrderStatus status = statusFor(event.getEventType());
+                if (status == null) {
+                    continue;
+                }
+                Instant occurredAt = event.getOccurredAt() != null
+                        ? event.getOccurredAt()
+                        : Instant.now();
+                transitions.add(new StatusTransition(event.getOrderId(), status, occurredAt));
+            } catch (Exception e) {
+                // An undecodable record cannot succeed on retry; skip it, keep the batch
+                log.error("Skipping unreadable status event: {}", e.getMessage(), e);
+            }
+        }
+
+        if (!transitions.isEmpty()) {
+            orderStatusProjector.apply(transitions);
+        }
+    }
+
+    /**
+     * The order status an event moves to, or null for events that do not
+     * change it (e.g. eta.updated).
+     */
+    private static OrderStatus statusFor(String eventType) {
+        return switch (eventType) {
+            case EventTypes.INVENTORY_RESERVED -> OrderStatus.INVENTORY_RESERVED;
+            case EventTypes.INVENTORY_REJECTED -> OrderStatus.INVENTORY_REJECTED;
+            case EventTypes.PAYMENT_AUTHORIZED -> OrderStatus.PAYMENT_AUTHORIZED;
+            case EventTypes.PAYMENT_FAILED -> OrderStatus.PAYMENT_FAILED;
+            case EventTypes.DELIVERY_ASSIGNED -> OrderStatus.DELIVERY_ASSIGNED;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,65 @@
+package com.delivery.order.partition;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A session-level Postgres advisory lock, held by one dedicated connection
+ * from the bound shard until {@link #close}. The guarded work runs on
+ * other pool connections; if the pod dies, Postgres drops the lock with
+ * the session.
+ */
+final class AdvisoryLock implements AutoCloseable {
+
+    private final Connection connection;
+    private final long key;
+
+    private AdvisoryLock(Connection connection, long key) {
+        this.connection = connection;
+        this.key = key;
+    }
+
+    /** Wait for the lock. */
+    static AdvisoryLock acquire(DataSource dataSource, long key) throws SQLException {
+        return take(dataSource, key, "pg_advisory_lock");
+    }
+
+    /** @return null if another session holds the lock */
+    static AdvisoryLock tryAcquire(DataSource dataSource, long key) throws SQLException {
+        return take(dataSource, key, "pg_try_advisory_lock");
+    }
+
+    private static AdvisoryLock take(DataSource dataSource, long key, String function) throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try {
+            // pg_advisory_lock returns void; anything but false means held
+            if (call(connection, function, key) != Boolean.FALSE) {
+                return new AdvisoryLock(connection, key);
+            }
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        connection.close();
+        return null;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try (connection) {
+            call(connection, "pg_advisory_unlock", key);
+        }
+    }
+
+    private static Object call(Connection connection, String function, long key) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT " + function + "(?)")) {
+            statement.setLong(1, key);
+            try (ResultSet rs = statement.executeQuery()) {
+                return rs.next() ? rs.getObject(1) : null;
+            }
+        }
+    }
+}
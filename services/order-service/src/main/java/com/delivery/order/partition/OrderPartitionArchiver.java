@@ -0,0 +1,203 @@
+package com.delivery.order.partition;
+
+import com.delivery.order.shard.ShardRouter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.postgresql.PGConnection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Moves orders partitions older than the retention period out of Postgres
+ * into gzip-compressed CSV files on local disk.
+ *
+ * CONCEPT: Detach, Export, Drop
+ * - DETACH PARTITION ... CONCURRENTLY takes the partition out of orders
+ *   without blocking inserts or lookups on the other partitions
+ * - The detached table is streamed with COPY ... TO STDOUT through a
+ *   GZIPOutputStream into a temporary file, which is fsynced and then
+ *   renamed, so a finished .csv.gz is always complete
+ * - Only then is the table dropped; dropping a partition frees its space
+ *   at once, without the DELETE + VACUUM churn of row-by-row purging
+ *
+ * Each step is safe to repeat: a run that died after the detach finds the
+ * detached table and resumes with the export, and an interrupted
+ * concurrent detach is finalized. orders_legacy (the pre-partitioning
+ * table) is never archived automatically.
+ *
+ * CONCEPT: One Archiver per Shard
+ * - Every pod runs this job; a session-level pg_try_advisory_lock on the
+ *   shard lets one pod archive it and the others skip the pass
+ * - Dropped partitions exist only in the files, so archive.dir must be an
+ *   existing absolute path on persistent storage (a mounted volume, not
+ *   the container's overlay or tmpfs); startup fails otherwise
+ */
+@Component
+public class OrderPartitionArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionArchiver.class);
+
+    // Attached daily partitions, flagging ones whose concurrent detach was interrupted
+    private static final String ATTACHED = """
+            SELECT c.relname, i.inhdetachpending FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'orders'::regclass
+            """;
+
+    // Advisory lock key, the same in every pod (ASCII "orders_a")
+    private static final long ARCHIVE_LOCK = 0x6F72646572735F61L;
+
+    private static final Set<String> EPHEMERAL_FILE_STORES = Set.of("overlay", "aufs", "tmpfs", "ramfs");
+
+    // Daily partition tables that are no longer attached (detached, not yet archived)
+    private static final String DETACHED = """
+            SELECT c.relname FROM pg_class c
+             WHERE c.relkind = 'r' AND NOT c.relispartition
+               AND c.relnamespace = current_schema()::regnamespace
+               AND c.relname ~ '^orders_p[0-9]{8}$'
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSource dataSource;
+    private final ShardRouter shardRouter;
+    private final OrderPartitions partitions;
+    private final boolean enabled;
+    private final int retentionDays;
+    private final Path archiveDir;
+    private final Counter archived;
+
+    public OrderPartitionArchiver(JdbcTemplate jdbcTemplate,
+            DataSource dataSource,
+            ShardRouter shardRouter,
+            OrderPartitions partitions,
+            MeterRegistry registry,
+            @Value("${orders.partitioning.archive.enabled:false}") boolean enabled,
+            @Value("${orders.partitioning.archive.retention-days:90}") int retentionDays,
+            @Value("${orders.partitioning.archive.dir:archive}") String archiveDir) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = dataSource;
+        this.shardRouter = shardRouter;
+        this.partitions = partitions;
+        this.enabled = enabled;
+        this.retentionDays = retentionDays;
+        this.archiveDir = Path.of(archiveDir);
+        this.archived = Counter.builder("orders.partitions.archived")
+                .description("Daily orders partitions exported to disk and dropped")
+                .register(registry);
+
+        if (partitions.isEnabled() && enabled) {
+            checkPersistent(this.archiveDir);
+        }
+    }
+
+    /** Refuse to archive into a directory that disappears with the pod. */
+    private static void checkPersistent(Path dir) {
+        if (!dir.isAbsolute() || !Files.isDirectory(dir) || !Files.isWritable(dir)) {
+            throw new IllegalStateException("orders.partitioning.archive.dir must be an existing, writable, "
+                    + "absolute directory on a persistent volume: " + dir);
+        }
+        try {
+            String type = Files.getFileStore(dir).type();
+            if (EPHEMERAL_FILE_STORES.contains(type)) {
+                throw new IllegalStateException("orders.partitioning.archive.dir " + dir + " is on " + type
+                        + ", which does not outlive the pod; mount a persistent volume there");
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot inspect orders.partitioning.archive.dir " + dir, e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${orders.partitioning.archive.interval-ms:3600000}",
+            fixedDelayString = "${orders.partitioning.archive.interval-ms:3600000}")
+    public void run() {
+        if (!partitions.isEnabled() || !enabled) {
+            return;
+        }
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            String shardName = shardRouter.shardName(shard);
+            try {
+                shardRouter.runOn(shard, () -> archiveShardLocked(shardName));
+            } catch (Exception e) {
+                log.error("Archiving orders partitions on shard {} failed, will retry: {}",
+                        shardName, e.getMessage());
+            }
+        }
+    }
+
+    /** Archive the bound shard unless another pod holds its archive lock. */
+    private void archiveShardLocked(String shardName) {
+        try (AdvisoryLock lock = AdvisoryLock.tryAcquire(dataSource, ARCHIVE_LOCK)) {
+            if (lock == null) {
+                log.debug("Shard {} is being archived by another instance; skipping", shardName);
+                return;
+            }
+            archiveShard(shardName);
+        } catch (SQLException e) {
+            throw new RuntimeException("Archive lock on shard " + shardName + " failed", e);
+        }
+    }
+
+    private void archiveShard(String shardName) {
+        LocalDate cutoff = LocalDate.now(ZoneOffset.UTC).minusDays(retentionDays);
+
+        for (Map<String, Object> row : jdbcTemplate.queryForList(ATTACHED)) {
+            String partition = (String) row.get("relname");
+            LocalDate day = OrderPartitions.dayOf(partition);
+            if (day != null && day.isBefore(cutoff)) {
+                // Outside a transaction: CONCURRENTLY cannot run inside one
+                boolean pending = Boolean.TRUE.equals(row.get("inhdetachpending"));
+                jdbcTemplate.execute("ALTER TABLE orders DETACH PARTITION " + partition
+                        + (pending ? " FINALIZE" : " CONCURRENTLY"));
+                log.info("Detached {} on shard {}", partition, shardName);
+            }
+        }
+
+        for (String table : jdbcTemplate.queryForList(DETACHED, String.class)) {
+            Path file = archiveDir.resolve(shardName).resolve(table + ".csv.gz");
+            long rows = export(table, file);
+            jdbcTemplate.execute("DROP TABLE " + table);
+            archived.increment();
+            log.info("Archived {} on shard {}: {} rows to {}", table, shardName, rows, file);
+        }
+    }
+
+    /** COPY {@code table} into {@code file} (gzip CSV with header); returns the row count. */
+    private long export(String table, Path file) {
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Connection connection = dataSource.getConnection()) {
+            Files.createDirectories(file.getParent());
+            long rows;
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(tmp), 1 << 16)) {
+                rows = connection.unwrap(PGConnection.class).getCopyAPI()
+                        .copyOut("COPY " + table + " TO STDOUT WITH (FORMAT csv, HEADER)", out);
+            }
+            try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+                channel.force(true);
+            }
+            Files.move(tmp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            return rows;
+        } catch (IOException | SQLException e) {
+            throw new RuntimeException("Failed to export " + table + " to " + file, e);
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.delivery.order.partition;
+
+import com.delivery.order.entity.ItemsLayout;
+import com.delivery.order.shard.ShardRouter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * Keeps the orders table range-partitioned by created_at, with daily
+ * partitions created ahead of time.
+ *
+ * CONCEPT: Convert in Place
+ * - The first run on a plain orders table renames it to orders_legacy and
+ *   attaches it, as-is, as the partition for everything before tomorrow;
+ *   no rows are copied
+ * - ATTACH must prove every legacy row fits that range. A CHECK with the
+ *   same bound is added NOT VALID and validated first, outside the lock
+ *   (VALIDATE lets reads and writes continue), so ATTACH skips its scan
+ *   and the ACCESS EXCLUSIVE lock is held only for catalog changes
+ * - Every pod runs this at startup; a per-shard advisory lock lets one
+ *   pod convert while the others wait, then find the table partitioned
+ * - Postgres requires unique keys of a partitioned table to contain the
+ *   partition key, so the new parent is keyed by (id, created_at) and
+ *   (order_id, created_at); the legacy partition keeps its old indexes
+ * - Foreign keys into orders (order_items.order_id) are dropped: they
+ *   cannot reference id alone any more
+ *
+ * CONCEPT: Small Hot Partitions
+ * - One partition per UTC day keeps the partition receiving inserts, and
+ *   its indexes, small enough to stay in shared buffers
+ * - Partitions for the next precreate-days days always exist, so inserts
+ *   never wait on DDL; orders.partitions.ready-days shows the margin
+ *
+ * Items are partitioned with their order when stored in orders.line_items
+ * (orders.items.layout=JSONB); the order_items table is not partitioned.
+ * Runs once per shard in sharded mode.
+ */
+@Component
+public class OrderPartitionManager {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderPartitionManager.class);
+
+    private static final String IS_PARTITIONED =
+            "SELECT count(*) FROM pg_partitioned_table WHERE partrelid = to_regclass('orders')";
+
+    private static final String DROP_FOREIGN_KEYS = """
+            DO $$
+            DECLARE fk record;
+            BEGIN
+                FOR fk IN SELECT conname, conrelid::regclass AS tbl FROM pg_constraint
+                           WHERE contype = 'f' AND confrelid = 'orders'::regclass LOOP
+                    EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.tbl, fk.conname);
+                END LOOP;
+            END $$
+            """;
+
+    private static final String RANGE_CHECK = "orders_legacy_range_check";
+
+    // Advisory lock key, the same in every pod (ASCII "orders_c")
+    private static final long CONVERT_LOCK = 0x6F72646572735F63L;
+
+    private static final String LIST_PARTITIONS = """
+            SELECT c.relname FROM pg_inherits i
+              JOIN pg_class c ON c.oid = i.inhrelid
+             WHERE i.inhparent = 'orders'::regclass
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final OrderPartitions partitions;
+    private final OrderPartitionManager self; // self-injection for @Transactional proxy
+    private final int precreateDays;
+    private volatile long readyDays = -1;
+
+    public OrderPartitionManager(JdbcTemplate jdbcTemplate,
+            ShardRouter shardRouter,
+            OrderPartitions partitions,
+            @Lazy OrderPartitionManager self,
+            MeterRegistry registry,
+            @Value("${orders.partitioning.precreate-days:7}") int precreateDays,
+            @Value("${orders.items.layout:TABLE}") ItemsLayout itemsLayout) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.partitions = partitions;
+        this.self = self;
+        this.precreateDays = precreateDays;
+
+        if (partitions.isEnabled()) {
+            Gauge.builder("orders.partitions.ready-days", this, m -> m.readyDays)
+                    .description("Days ahead for which orders partitions exist (lowest across shards)")
+                    .register(registry);
+            if (itemsLayout.writesTable()) {
+                log.warn("orders is partitioned but items are still written to the unpartitioned "
+                        + "order_items table; switch orders.items.layout to JSONB after the backfill");
+            }
+        }
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${orders.partitioning.check-interval-ms:3600000}")
+    public void run() {
+        if (!partitions.isEnabled()) {
+            return;
+        }
+        try {
+            long lowest = Long.MAX_VALUE;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                int current = shard;
+                lowest = Math.min(lowest, shardRouter.callOn(shard, () -> maintain(current)));
+            }
+            readyDays = lowest;
+        } catch (Exception e) {
+            log.error("orders partition maintenance failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    /** Convert if needed and create missing partitions; returns days covered ahead of today. */
+    private long maintain(int shard) {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        if (!isPartitioned()) {
+            convertLocked(shard, today.plusDays(1));
+        }
+
+        TreeSet<LocalDate> days = new TreeSet<>();
+        for (String name : jdbcTemplate.queryForList(LIST_PARTITIONS, String.class)) {
+            LocalDate day = OrderPartitions.dayOf(name);
+            if (day != null) {
+                days.add(day);
+            }
+        }
+
+        // Days before the first daily partition belong to orders_legacy
+        LocalDate from = days.isEmpty() || today.isAfter(days.first()) ? today : days.first();
+        for (LocalDate day = from; !day.isAfter(today.plusDays(precreateDays)); day = day.plusDays(1)) {
+            if (!days.contains(day)) {
+                createPartition(day);
+                days.add(day);
+            }
+        }
+
+        LocalDate ready = today;
+        while (days.contains(ready.plusDays(1))) {
+            ready = ready.plusDays(1);
+        }
+        return ready.toEpochDay() - today.toEpochDay();
+    }
+
+    private boolean isPartitioned() {
+        return Objects.requireNonNull(jdbcTemplate.queryForObject(IS_PARTITIONED, Integer.class)) > 0;
+    }
+
+    /** Convert the bound shard under its advisory lock, unless another pod got there first. */
+    private void convertLocked(int shard, LocalDate cutover) {
+        try (AdvisoryLock lock = AdvisoryLock.acquire(jdbcTemplate.getDataSource(), CONVERT_LOCK)) {
+            if (isPartitioned()) {
+                return;
+            }
+            validateRange(cutover);
+            try {
+                self.convert(cutover);
+            } catch (RuntimeException e) {
+                // The check would reject tomorrow's inserts on the plain table
+                jdbcTemplate.execute("ALTER TABLE orders DROP CONSTRAINT IF EXISTS " + RANGE_CHECK);
+                throw e;
+            }
+            log.info("orders on shard {} converted to a partitioned table; existing rows are in {}",
+                    shardRouter.shardName(shard), OrderPartitions.LEGACY);
+        } catch (SQLException e) {
+            throw new RuntimeException("Conversion lock on shard " + shardRouter.shardName(shard) + " failed", e);
+        }
+    }
+
+    /**
+     * Prove that every row is before {@code cutover} without holding a
+     * blocking lock: each statement autocommits, and VALIDATE CONSTRAINT
+     * only takes SHARE UPDATE EXCLUSIVE while it scans.
+     */
+    private void validateRange(LocalDate cutover) {
+        for (String statement : List.of(
+                "ALTER TABLE orders DROP CONSTRAINT IF EXISTS " + RANGE_CHECK, // left by a failed run
+                "ALTER TABLE orders ADD CONSTRAINT " + RANGE_CHECK + " CHECK (created_at IS NOT NULL"
+                        + " AND created_at < '" + cutover + " 00:00:00+00') NOT VALID",
+                "ALTER TABLE orders VALIDATE CONSTRAINT " + RANGE_CHECK)) {
+            jdbcTemplate.execute(statement);
+        }
+    }
+
+    /**
+     * Swap the plain orders table for a partitioned one, keeping the old
+     * table as the partition for created_at before {@code cutover}.
+     */
+    @Transactional
+    public void convert(LocalDate cutover) {
+        for (String statement : List.of(
+                "LOCK TABLE orders IN ACCESS EXCLUSIVE MODE",
+                DROP_FOREIGN_KEYS,
+                "ALTER TABLE orders RENAME TO " + OrderPartitions.LEGACY,
+                // Frees the name; the parent index below adopts it as the legacy partition's index
+                "ALTER INDEX IF EXISTS idx_orders_customer_created_id RENAME TO orders_legacy_customer_created_id",
+                "ALTER INDEX IF EXISTS orders_order_id_created_at_key RENAME TO orders_legacy_order_id_created_at_key",
+                "CREATE TABLE orders (LIKE " + OrderPartitions.LEGACY + " INCLUDING DEFAULTS)"
+                        + " PARTITION BY RANGE (created_at)",
+                "ALTER TABLE orders ADD CONSTRAINT orders_id_created_at_pkey PRIMARY KEY (id, created_at)",
+                "ALTER TABLE orders ADD CONSTRAINT orders_order_id_created_at_key UNIQUE (order_id, created_at)",
+                "CREATE INDEX idx_orders_customer_created_id ON orders (customer_id, created_at, id)",
+                // Implied by the validated RANGE_CHECK, so no scan
+                "ALTER TABLE orders ATTACH PARTITION " + OrderPartitions.LEGACY
+                        + " FOR VALUES FROM (MINVALUE) TO ('" + cutover + " 00:00:00+00')",
+                "ALTER TABLE " + OrderPartitions.LEGACY + " DROP CONSTRAINT " + RANGE_CHECK)) {
+            jdbcTemplate.execute(statement);
+        }
+        createPartition(cutover);
+    }
+
+    private void createPartition(LocalDate day) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + OrderPartitions.partitionName(day)
+                + " PARTITION OF orders FOR VALUES FROM ('" + day + " 00:00:00+00') TO ('"
+                + day.plusDays(1) + " 00:00:00+00')");
+        log.info("Created partition {}", OrderPartitions.partitionName(day));
+    }
+}
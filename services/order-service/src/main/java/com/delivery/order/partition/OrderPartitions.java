@@ -0,0 +1,75 @@
+package com.delivery.order.partition;
+
+import com.delivery.common.id.TimeOrderedIds;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Layout of the time-partitioned orders table, shared by the lookups that
+ * prune partitions and the jobs that create and archive them.
+ *
+ * CONCEPT: Partition Pruning from the ID
+ * - orders is range-partitioned by created_at, one partition per UTC day
+ *   (orders_pYYYYMMDD); a lookup by order_id alone has to probe every
+ *   partition's index
+ * - A UUIDv7 orderId carries its creation millisecond, minted just before
+ *   created_at is set, so a lookup can add
+ *   {@code created_at BETWEEN t - skew AND t + skew} and Postgres only
+ *   touches the one (rarely two) partitions in that range
+ * - Random (pre-v7) orderIds carry no time and fall back to the plain lookup
+ */
+@Component
+public class OrderPartitions {
+
+    static final String PARENT = "orders";
+    static final String LEGACY = "orders_legacy";
+
+    private static final Pattern DAILY = Pattern.compile("orders_p(\\d{8})");
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private final boolean enabled;
+    private final Duration idSkew;
+
+    public OrderPartitions(@Value("${orders.partitioning.enabled:false}") boolean enabled,
+            @Value("${orders.partitioning.id-skew-ms:600000}") long idSkewMs) {
+        this.enabled = enabled;
+        this.idSkew = Duration.ofMillis(idSkewMs);
+    }
+
+    /** created_at bounds for a pruned lookup. */
+    public record CreatedAtWindow(Instant from, Instant to) {
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * The created_at range an order must fall in, or null when partitioning
+     * is off or {@code orderId} is not time-ordered.
+     */
+    public CreatedAtWindow windowOf(String orderId) {
+        if (!enabled) {
+            return null;
+        }
+        Instant minted = TimeOrderedIds.timestampOf(orderId);
+        return minted != null ? new CreatedAtWindow(minted.minus(idSkew), minted.plus(idSkew)) : null;
+    }
+
+    static String partitionName(LocalDate day) {
+        return "orders_p" + SUFFIX.format(day);
+    }
+
+    /** The day a daily partition covers, or null for any other table name. */
+    static LocalDate dayOf(String partition) {
+        Matcher matcher = DAILY.matcher(partition);
+        return matcher.matches() ? LocalDate.parse(matcher.group(1), SUFFIX) : null;
+    }
+}
@@ -1,25 +1,29 @@
 package com.delivery.order.publisher;
 
+import com.delivery.common.codec.EventCodecs;
 import com.delivery.common.event.EventEnvelope;
 import com.delivery.common.event.EventTypes;
 import com.delivery.common.event.Topics;
 import com.delivery.order.dto.OrderCreatedPayload;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.delivery.order.entity.OutboxEvent;
+import com.delivery.order.repository.OutboxRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
- * Publishes order events to Kafka.
+ * Publishes order events through the transactional outbox.
  * 
- * CONCEPT: KafkaTemplate
- * - Spring's helper for publishing messages to Kafka
- * - send(topic, key, value) publishes a message
- * - Key is used for partitioning (same key → same partition)
- * - Using orderId as key ensures all events for same order
- * go to the same partition (preserves ordering)
+ * CONCEPT: Dual-Write Problem
+ * - Saving the order and sending to Kafka are two separate systems
+ * - Sending inside the transaction can publish events for orders that
+ *   then roll back; sending after commit can lose events on a crash
+ * - Instead, the encoded event is written to the outbox_events table in
+ *   the order's transaction, and OutboxRelay publishes it afterwards
+ * 
+ * @see OutboxRelay
  */
 @Component
 public class OrderEventPublisher {
@@ -27,21 +31,22 @@ public class OrderEventPublisher {
     private static final Logger log = LoggerFactory.getLogger(OrderEventPublisher.class);
     private static final String PRODUCER_NAME = "order-service";
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final OutboxRepository outboxRepository;
+    private final EventCodecs eventCodecs;
 
-    public OrderEventPublisher(KafkaTemplate<String, String> kafkaTemplate,
-            ObjectMapper objectMapper) {
-        this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+    public OrderEventPublisher(OutboxRepository outboxRepository,
+            EventCodecs eventCodecs) {
+        this.outboxRepository = outboxRepository;
+        this.eventCodecs = eventCodecs;
     }
 
     /**
-     * Publish order.created event to Kafka.
+     * Queue an order.created event. Must run inside the order's transaction.
      * 
      * @param orderId The order's business ID (used as partition key)
      * @param payload The event payload with order details
      */
+    @Transactional(propagation = Propagation.MANDATORY)
     public void publishOrderCreated(String orderId, OrderCreatedPayload payload) {
 
         // Build the event envelope using the shared contract
@@ -53,27 +58,20 @@ public class OrderEventPublisher {
                 .payload(payload)
                 .build();
 
-        try {
-            String json = objectMapper.writeValueAsString(envelope);
-
-            // CONCEPT: Partition Key
-            // Using orderId as key ensures all events for same order
-            // go to same partition (preserves ordering)
-            kafkaTemplate.send(Topics.ORDER_EVENTS, orderId, json)
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            log.error("Failed to publish order.created for order={}: {}",
-                                    orderId, ex.getMessage());
-                        } else {
-                            log.info("Published order.created for order={} to partition={}",
-                                    orderId,
-                                    result.getRecordMetadata().partition());
-                        }
-                    });
+        // CONCEPT: Outbox Write
+        // The event is stored next to the order, in the same transaction.
+        // OutboxRelay sends it to Kafka after commit, keyed by orderId so
+        // all events for the same order go to the same partition
+        outboxRepository.save(OutboxEvent.create(
+                Topics.ORDER_EVENTS,
+                orderId,
+                eventCodecs.encode(Topics.ORDER_EVENTS, envelope),
+                envelope.getEventId(),
+                envelope.getEventType(),
+                envelope.getCorrelationId(),
+                envelope.getSchemaVersion(),
+                envelope.getOccurredAt()));
 
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize order.created event: {}", e.getMessage());
-            throw new RuntimeException("Event serialization failed", e);
-        }
+        log.debug("Queued order.created for order={} in outbox", orderId);
     }
 }
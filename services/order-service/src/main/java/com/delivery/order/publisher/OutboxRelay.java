@@ -0,0 +1,119 @@
+package com.delivery.order.publisher;
+
+import com.delivery.common.kafka.EventHeaders;
+import com.delivery.order.entity.OutboxEvent;
+import com.delivery.order.repository.OutboxRepository;
+import com.delivery.order.shard.ShardRouter;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox to Kafka.
+ *
+ * CONCEPT: Batched Relay
+ * - Each pass locks up to batch-size rows with FOR UPDATE SKIP LOCKED,
+ *   so every order-service pod can run a relay on a disjoint batch
+ * - All records of the batch are handed to the producer, then ONE flush
+ *   pushes them out together; the broker acks are awaited as a group
+ * - Only when every send succeeded are the rows deleted and the
+ *   transaction committed; any failure rolls back and the batch is retried
+ *
+ * CONCEPT: At-Least-Once
+ * - A crash between the Kafka ack and the commit re-sends the batch
+ * - Consumers are already idempotent (they skip orders and events they
+ *   have processed), so a duplicate is harmless
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxRepository outboxRepository;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final ShardRouter shardRouter;
+    private final OutboxRelay self; // self-injection for @Transactional proxy
+    private final int batchSize;
+    private final long sendTimeoutMs;
+
+    public OutboxRelay(OutboxRepository outboxRepository,
+            KafkaTemplate<String, byte[]> kafkaTemplate,
+            ShardRouter shardRouter,
+            @Lazy OutboxRelay self,
+            @Value("${outbox.relay.batch-size:500}") int batchSize,
+            @Value("${outbox.relay.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.shardRouter = shardRouter;
+        this.self = self;
+        this.batchSize = batchSize;
+        this.sendTimeoutMs = sendTimeoutMs;
+    }
+
+    /**
+     * Relay full batches back to back until the outbox is (nearly) empty,
+     * then wait for the next poll. In sharded mode each shard has its own
+     * outbox and is drained in turn.
+     */
+    @Scheduled(fixedDelayString = "${outbox.relay.poll-interval-ms:100}")
+    public void drain() {
+        shardRouter.forEachShard(() -> {
+            try {
+                int relayed;
+                do {
+                    relayed = self.relayBatch();
+                } while (relayed == batchSize);
+            } catch (Exception e) {
+                log.error("Outbox relay failed on shard {}, batch will be retried: {}",
+                        shardRouter.shardName(ShardRouter.currentShard()), e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Send one batch and delete it, all in one transaction.
+     *
+     * @return number of events relayed
+     */
+    @Transactional(rollbackFor = Exception.class)
+    public int relayBatch() throws InterruptedException, ExecutionException, TimeoutException {
+        List<OutboxEvent> batch = outboxRepository.lockNextBatch(batchSize);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        List<CompletableFuture<SendResult<String, byte[]>>> sends = new ArrayList<>(batch.size());
+        List<Long> ids = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                    event.getTopic(), event.getRecordKey(), event.getRecordValue());
+            EventHeaders.write(record.headers(), event.getEventType(), event.getEventId(),
+                    event.getCorrelationId(), event.getSchemaVersion(), event.getOccurredAt());
+            sends.add(kafkaTemplate.send(record));
+            ids.add(event.getId());
+        }
+
+        // One flush for the whole batch instead of waiting on linger per record
+        kafkaTemplate.flush();
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                .get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+
+        outboxRepository.deleteAllByIdInBatch(ids);
+        log.info("Relayed {} outbox events to Kafka", batch.size());
+        return batch.size();
+    }
+}
@@ -0,0 +1,102 @@
+package com.delivery.order.replica;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Read replica settings ({@code orders.read-replicas.*}).
+ *
+ * The replica list here is used when sharding is off; in sharded mode
+ * each shard lists its own replicas (orders.sharding.shards[i].replicas).
+ */
+@ConfigurationProperties(prefix = "orders.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+    private long readYourWritesMs = 2000;
+    private long maxLagMs = 1000;
+    private List<Replica> replicas = new ArrayList<>();
+
+    public static class Replica {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 20;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getReadYourWritesMs() {
+        return readYourWritesMs;
+    }
+
+    public void setReadYourWritesMs(long readYourWritesMs) {
+        this.readYourWritesMs = readYourWritesMs;
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    public void setMaxLagMs(long maxLagMs) {
+        this.maxLagMs = maxLagMs;
+    }
+
+    public List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas) {
+        this.replicas = replicas;
+    }
+}
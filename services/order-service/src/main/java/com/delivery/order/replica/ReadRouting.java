@@ -0,0 +1,93 @@
+package com.delivery.order.replica;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Decides whether a read may be served by a replica.
+ *
+ * CONCEPT: Read-Your-Writes Window
+ * - A replica can be a little behind the primary, so a client that just
+ *   wrote may not see its write there
+ * - Writers record the keys they touched (orderId, customerId); for the
+ *   next read-your-writes-ms, reads of those keys go to the primary
+ * - The window lives in this pod; a client whose next request lands on
+ *   another pod is covered by the miss retry below for new orders
+ *
+ * CONCEPT: Retry a Miss on the Primary
+ * - A row that is missing on a replica may just not have replicated yet,
+ *   so an empty replica result is retried once on the primary
+ *   (counted as orders.db.replica.miss-retries)
+ *
+ * Without replicas configured, reads run as-is.
+ */
+@Component
+public class ReadRouting {
+
+    private final ReplicaDataSources replicas;
+    private final Cache<String, Boolean> recentWrites;
+    private final Counter missRetries;
+
+    public ReadRouting(ReplicaDataSources replicas, ReadReplicaProperties properties, MeterRegistry registry) {
+        this.replicas = replicas;
+        this.recentWrites = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofMillis(properties.getReadYourWritesMs()))
+                .build();
+        this.missRetries = Counter.builder("orders.db.replica.miss-retries")
+                .description("Replica reads that found nothing and were retried on the primary")
+                .register(registry);
+    }
+
+    /** Run {@code work} with this thread's reads on the primary. */
+    public static <T> T onPrimary(Supplier<T> work) {
+        return ReplicaRoutingDataSource.onPrimary(work);
+    }
+
+    /** Pin reads of {@code keys} to the primary for the read-your-writes window. */
+    public void recordWrite(String... keys) {
+        if (replicas.hasReplicas()) {
+            for (String key : keys) {
+                recentWrites.put(key, Boolean.TRUE);
+            }
+        }
+    }
+
+    /**
+     * Run a read-only query about {@code key} on the primary if the key was
+     * written recently, otherwise wherever routing sends it.
+     */
+    public <T> T route(String key, Supplier<T> query) {
+        if (replicas.hasReplicas() && recentWrites.getIfPresent(key) != null) {
+            return onPrimary(query);
+        }
+        return query.get();
+    }
+
+    /**
+     * Run a read-only lookup of {@code key} on a replica, unless the key
+     * was written recently; an empty replica result is retried on the
+     * primary.
+     */
+    public <T> Optional<T> read(String key, Supplier<Optional<T>> query) {
+        if (!replicas.hasReplicas()) {
+            return query.get();
+        }
+        if (recentWrites.getIfPresent(key) != null) {
+            return onPrimary(query);
+        }
+        Optional<T> result = query.get();
+        if (result.isEmpty()) {
+            missRetries.increment();
+            result = onPrimary(query);
+        }
+        return result;
+    }
+}
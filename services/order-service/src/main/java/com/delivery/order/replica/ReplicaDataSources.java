@@ -0,0 +1,110 @@
+package com.delivery.order.replica;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Builds the replica-aware DataSource for a primary (the single order_db,
+ * or one shard) and keeps the replicas' lag up to date.
+ *
+ * With orders.read-replicas.enabled off, or no replicas listed, the
+ * primary is returned unchanged and nothing else happens.
+ *
+ * Every Hikari pool passed in or created here is remembered, so pool
+ * metrics can be read without resolving a connection through the routers.
+ */
+@Component
+public class ReplicaDataSources {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaDataSources.class);
+
+    private final ReadReplicaProperties properties;
+    private final MeterRegistry registry;
+    private final List<ReplicaRoutingDataSource> routers = new CopyOnWriteArrayList<>();
+    private final List<HikariDataSource> hikariPools = new CopyOnWriteArrayList<>();
+
+    public ReplicaDataSources(ReadReplicaProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    /**
+     * Put {@code replicas} behind {@code primary}.
+     *
+     * @param pool     Name for pools and metrics ("primary" or the shard name)
+     * @param primary  The read-write DataSource
+     * @param replicas Replica endpoints of that primary
+     */
+    public DataSource route(String pool, DataSource primary, List<ReadReplicaProperties.Replica> replicas) {
+        if (primary instanceof HikariDataSource hikari) {
+            hikariPools.add(hikari);
+        }
+        if (!properties.isEnabled() || replicas == null || replicas.isEmpty()) {
+            return primary;
+        }
+
+        Map<String, DataSource> pools = new LinkedHashMap<>();
+        for (ReadReplicaProperties.Replica replica : replicas) {
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("order-" + pool + "-" + replica.getName());
+            dataSource.setJdbcUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            dataSource.setMaximumPoolSize(replica.getMaximumPoolSize());
+            dataSource.setReadOnly(true);
+            pools.put(replica.getName(), dataSource);
+            hikariPools.add(dataSource);
+        }
+
+        ReplicaRoutingDataSource router = new ReplicaRoutingDataSource(
+                pool, primary, pools, properties.getMaxLagMs(), registry);
+        for (int i = 0; i < router.replicaNames().size(); i++) {
+            int index = i;
+            Gauge.builder("orders.db.replica.lag", router, r -> r.lagMillis(index))
+                    .description("Replay lag of a read replica in ms (MAX_VALUE when unreachable)")
+                    .tag("pool", pool)
+                    .tag("replica", router.replicaNames().get(i))
+                    .baseUnit("milliseconds")
+                    .register(registry);
+        }
+        routers.add(router);
+        log.info("Reads for {} routed to replicas {}", pool, pools.keySet());
+
+        // Defer the physical connection until the read-only flag is known
+        return new LazyConnectionDataSourceProxy(router);
+    }
+
+    /** Primary and replica pools of every route built so far (empty without sharding or replicas). */
+    public List<HikariDataSource> hikariPools() {
+        return hikariPools;
+    }
+
+    public boolean hasReplicas() {
+        return !routers.isEmpty();
+    }
+
+    @Scheduled(fixedDelayString = "${orders.read-replicas.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        routers.forEach(ReplicaRoutingDataSource::refreshLag);
+    }
+
+    @PreDestroy
+    void close() throws Exception {
+        for (ReplicaRoutingDataSource router : routers) {
+            router.close();
+        }
+    }
+}
@@ -0,0 +1,182 @@
+package com.delivery.order.replica;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * One database (or one shard) with a primary and its streaming replicas.
+ * Read-only transactions get a replica connection; everything else gets
+ * the primary.
+ *
+ * CONCEPT: Route on the Transaction's Read-Only Flag
+ * - Spring marks a @Transactional(readOnly = true) transaction read-only
+ *   only after it has begun, so this DataSource sits behind a
+ *   LazyConnectionDataSourceProxy: the physical connection is fetched at
+ *   the first statement, when the flag is already visible here
+ * - Connections outside any transaction (schema setup, rebalancer) count
+ *   as writes and go to the primary
+ *
+ * CONCEPT: Lag-Aware Replica Choice
+ * - {@link #refreshLag()} measures each replica's replay lag; replicas
+ *   behind by more than max-lag-ms (or unreachable) are skipped, and when
+ *   none qualifies the read falls back to the primary
+ * - {@link #onPrimary} pins the current thread's reads to the primary
+ *   (read-your-writes, see ReadRouting)
+ *
+ * Every routing decision is counted as orders.db.routing{pool, target, reason}.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private static final ThreadLocal<Boolean> PRIMARY_PIN = new ThreadLocal<>();
+
+    private static final String PRIMARY = "primary";
+
+    // 0 when fully replayed, so an idle primary does not look like lag
+    private static final String LAG_QUERY = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                        ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final String pool;
+    private final DataSource primary;
+    private final List<String> replicaNames;
+    private final List<DataSource> replicas;
+    private final AtomicLongArray lagMillis;
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+
+    private final Counter writes;
+    private final Counter pinnedReads;
+    private final Counter laggingReads;
+    private final Counter replicaReads;
+
+    public ReplicaRoutingDataSource(String pool, DataSource primary, Map<String, DataSource> replicas,
+            long maxLagMillis, MeterRegistry registry) {
+        this.pool = pool;
+        this.primary = primary;
+        this.replicaNames = List.copyOf(replicas.keySet());
+        this.replicas = new ArrayList<>(replicas.values());
+        this.lagMillis = new AtomicLongArray(replicas.size());
+        this.maxLagMillis = maxLagMillis;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        for (int i = 0; i < this.replicas.size(); i++) {
+            targets.put(i, this.replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+
+        this.writes = routed(registry, PRIMARY, "write");
+        this.pinnedReads = routed(registry, PRIMARY, "read-your-writes");
+        this.laggingReads = routed(registry, PRIMARY, "replica-lag");
+        this.replicaReads = routed(registry, "replica", "read");
+    }
+
+    private Counter routed(MeterRegistry registry, String target, String reason) {
+        return Counter.builder("orders.db.routing")
+                .description("Connections handed out, by target and reason")
+                .tag("pool", pool)
+                .tag("target", target)
+                .tag("reason", reason)
+                .register(registry);
+    }
+
+    /** Run {@code work} with this thread's read-only transactions on the primary. */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean previous = PRIMARY_PIN.get();
+        PRIMARY_PIN.set(Boolean.TRUE);
+        try {
+            return work.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_PIN.remove();
+            }
+        }
+    }
+
+    public String pool() {
+        return pool;
+    }
+
+    public List<String> replicaNames() {
+        return replicaNames;
+    }
+
+    /** Last measured replay lag of replica {@code index}, in ms (MAX_VALUE if unreachable). */
+    public long lagMillis(int index) {
+        return lagMillis.get(index);
+    }
+
+    /** Measure every replica's replay lag. */
+    public void refreshLag() {
+        for (int i = 0; i < replicas.size(); i++) {
+            try (Connection connection = replicas.get(i).getConnection();
+                    Statement statement = connection.createStatement();
+                    ResultSet rs = statement.executeQuery(LAG_QUERY)) {
+                rs.next();
+                lagMillis.set(i, (long) rs.getDouble(1));
+            } catch (Exception e) {
+                if (lagMillis.getAndSet(i, Long.MAX_VALUE) != Long.MAX_VALUE) {
+                    log.warn("Replica {}/{} unreachable, reading from primary: {}",
+                            pool, replicaNames.get(i), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Close the primary and replica pools. */
+    public void close() throws Exception {
+        for (DataSource dataSource : replicas) {
+            if (dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+        if (primary instanceof AutoCloseable closeable) {
+            closeable.close();
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            writes.increment();
+            return PRIMARY;
+        }
+        if (PRIMARY_PIN.get() != null) {
+            pinnedReads.increment();
+            return PRIMARY;
+        }
+        int count = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), count);
+        for (int i = 0; i < count; i++) {
+            int replica = (start + i) % count;
+            if (lagMillis.get(replica) <= maxLagMillis) {
+                replicaReads.increment();
+                return replica;
+            }
+        }
+        laggingReads.increment();
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,27 @@
+package com.delivery.order.repository;
+
+import com.delivery.order.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Repository for stored Idempotency-Key outcomes (primary key = the key).
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Bulk-delete records older than the retention window.
+     * One DELETE statement, no entities loaded.
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
@@ -1,10 +1,18 @@
 package com.delivery.order.repository;
 
+import com.delivery.order.dto.OrderSummary;
 import com.delivery.order.entity.Order;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for Order entity.
@@ -22,4 +30,48 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
      * Spring generates: SELECT * FROM orders WHERE order_id = ?
      */
     Optional<Order> findByOrderId(String orderId);
+
+    /**
+     * Same lookup restricted to a created_at range, so a partitioned orders
+     * table only scans the partitions in that range (see OrderPartitions).
+     */
+    Optional<Order> findByOrderIdAndCreatedAtBetween(String orderId, Instant from, Instant to);
+
+    /**
+     * First page of a customer's orders, newest first.
+     * 
+     * CONCEPT: Keyset (Seek) Pagination
+     * - Each page starts where the previous one ended, (createdAt, id) <
+     *   the cursor, instead of skipping OFFSET rows
+     * - With the (customer_id, created_at, id) index every page is one
+     *   index range scan of exactly `limit` entries, so page 1000 costs
+     *   the same as page 1
+     * 
+     * Returns a Stream (rows fetched from the cursor as they are consumed);
+     * it must be consumed inside the read transaction and closed.
+     */
+    @Query("""
+            SELECT new com.delivery.order.dto.OrderSummary(
+                       o.id, o.orderId, o.status, o.totalAmount, o.currency, o.createdAt)
+              FROM Order o
+             WHERE o.customerId = :customerId
+             ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<OrderSummary> streamHistory(String customerId, Limit limit);
+
+    /**
+     * Next page of a customer's orders: those strictly older than the
+     * cursor position (createdAt, id).
+     */
+    @Query("""
+            SELECT new com.delivery.order.dto.OrderSummary(
+                       o.id, o.orderId, o.status, o.totalAmount, o.currency, o.createdAt)
+              FROM Order o
+             WHERE o.customerId = :customerId
+               AND (o.createdAt, o.id) < (:createdAt, :id)
+             ORDER BY o.createdAt DESC, o.id DESC
+            """)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "100"))
+    Stream<OrderSummary> streamHistoryBefore(String customerId, Instant createdAt, long id, Limit limit);
 }
@@ -0,0 +1,30 @@
+package com.delivery.order.repository;
+
+import com.delivery.order.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for outbox rows.
+ *
+ * CONCEPT: SELECT ... FOR UPDATE SKIP LOCKED
+ * - Locks the rows it returns until the transaction ends
+ * - Rows already locked by another transaction are skipped, not waited on
+ * - So several order-service pods can relay in parallel, each taking a
+ *   different batch, without double-sending or blocking each other
+ */
+@Repository
+public interface OutboxRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock and return the oldest {@code limit} rows no other relay holds.
+     * Must be called inside a transaction.
+     */
+    @Query(value = "SELECT * FROM outbox_events ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
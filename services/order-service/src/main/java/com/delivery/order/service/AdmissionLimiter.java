@@ -0,0 +1,291 @@
+package com.delivery.order.service;
+
+import com.delivery.order.replica.ReplicaDataSources;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.kafka.common.Metric;
+import org.apache.kafka.common.MetricName;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive admission control for order creation.
+ *
+ * CONCEPT: Concurrency Limit, Not Rate Limit
+ * - Every in-flight request holds a permit; past the limit, new requests
+ *   are rejected at once (503 + Retry-After) instead of queueing on
+ *   Tomcat threads and the Hikari wait queue until they all time out
+ * - The limit is not configured but learned from latency
+ *
+ * CONCEPT: Gradient Algorithm (as in Netflix concurrency-limits)
+ * - Latencies are averaged over short windows (sample-window-ms, and at
+ *   least 10 requests); the limit is updated once per window
+ * - longRtt: the "no queue" baseline; it drops to any faster window at
+ *   once and otherwise creeps up by 1/long-window per window, so it can
+ *   follow a real change (e.g. a slower database) without chasing overload
+ * - shortRtt: the latest window's average
+ * - gradient = clamp(tolerance * longRtt / shortRtt, 0.5, 1.0)
+ *   1.0 while latency is at baseline, below 1 once requests start queueing
+ * - newLimit = limit * gradient + sqrt(limit)
+ *   the sqrt term is headroom that lets the limit probe upwards
+ * - The limit only grows while at least half of it is in use, so an idle
+ *   service does not drift to max-limit
+ *
+ * CONCEPT: Pressure Signals
+ * - Latency reacts only once requests are already slow; two leading
+ *   signals are sampled every sample-interval-ms and shrink the limit
+ *   multiplicatively while either is over its threshold:
+ *   1. Hikari threads awaiting a connection, summed over every pool
+ *      (all shards and their replicas)
+ *   2. Kafka producer buffer utilization (the outbox relay backing up)
+ */
+@Component
+public class AdmissionLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AdmissionLimiter.class);
+
+    private static final double MIN_GRADIENT = 0.5;
+    private static final double PRESSURE_BACKOFF = 0.9;
+    private static final int MIN_WINDOW_SAMPLES = 10;
+
+    private final boolean enabled;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longWindow;
+    private final long windowNanos;
+    private final int hikariPendingThreshold;
+    private final double producerBufferThreshold;
+
+    private final DataSource dataSource;
+    private final ReplicaDataSources replicaDataSources;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock sampleLock = new ReentrantLock();
+    private final Counter rejected;
+
+    private volatile double limit;
+    // Guarded by sampleLock
+    private double longRttNanos;
+    private long windowStartNanos;
+    private long windowSumNanos;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private volatile boolean pressured;
+
+    public AdmissionLimiter(DataSource dataSource,
+            ReplicaDataSources replicaDataSources,
+            KafkaTemplate<String, byte[]> kafkaTemplate,
+            MeterRegistry registry,
+            @Value("${orders.admission.enabled:true}") boolean enabled,
+            @Value("${orders.admission.initial-limit:20}") int initialLimit,
+            @Value("${orders.admission.min-limit:4}") int minLimit,
+            @Value("${orders.admission.max-limit:200}") int maxLimit,
+            @Value("${orders.admission.smoothing:0.2}") double smoothing,
+            @Value("${orders.admission.rtt-tolerance:1.5}") double tolerance,
+            @Value("${orders.admission.long-window:600}") int longWindow,
+            @Value("${orders.admission.sample-window-ms:100}") long sampleWindowMs,
+            @Value("${orders.admission.hikari-pending-threshold:5}") int hikariPendingThreshold,
+            @Value("${orders.admission.producer-buffer-threshold:0.9}") double producerBufferThreshold) {
+        this.dataSource = dataSource;
+        this.replicaDataSources = replicaDataSources;
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longWindow = longWindow;
+        this.windowNanos = sampleWindowMs * 1_000_000;
+        this.hikariPendingThreshold = hikariPendingThreshold;
+        this.producerBufferThreshold = producerBufferThreshold;
+        this.limit = initialLimit;
+
+        Gauge.builder("orders.admission.limit", () -> limit)
+                .description("Current adaptive concurrency limit for order creation")
+                .register(registry);
+        Gauge.builder("orders.admission.inflight", inFlight, AtomicInteger::get)
+                .description("Order creation requests currently admitted")
+                .register(registry);
+        Gauge.builder("orders.admission.pressured", () -> pressured ? 1 : 0)
+                .description("1 while Hikari or Kafka producer pressure is shrinking the limit")
+                .register(registry);
+        this.rejected = Counter.builder("orders.admission.rejected")
+                .description("Order creation requests shed with 503")
+                .register(registry);
+    }
+
+    /**
+     * A held slot. Closing it releases the slot and feeds the request's
+     * latency back into the limit.
+     */
+    public final class Permit implements AutoCloseable {
+
+        private final long startNanos = System.nanoTime();
+
+        private Permit() {
+        }
+
+        @Override
+        public void close() {
+            int current = inFlight.getAndDecrement();
+            onSample(System.nanoTime() - startNanos, current);
+        }
+    }
+
+    /**
+     * @return a permit, or null if the request should be shed
+     */
+    public Permit tryAcquire() {
+        if (!enabled) {
+            inFlight.incrementAndGet();
+            return new Permit();
+        }
+        int current = inFlight.incrementAndGet();
+        if (current > (int) limit) {
+            inFlight.decrementAndGet();
+            rejected.increment();
+            return null;
+        }
+        return new Permit();
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    private void onSample(long rttNanos, int inFlightAtCompletion) {
+        if (!enabled || rttNanos <= 0) {
+            return;
+        }
+        sampleLock.lock();
+        try {
+            long now = System.nanoTime();
+            if (windowCount == 0) {
+                windowStartNanos = now;
+            }
+            windowSumNanos += rttNanos;
+            windowCount++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtCompletion);
+            if (windowCount < MIN_WINDOW_SAMPLES || now - windowStartNanos < windowNanos) {
+                return;
+            }
+
+            double shortRtt = (double) windowSumNanos / windowCount;
+            int maxInFlight = windowMaxInFlight;
+            windowSumNanos = 0;
+            windowCount = 0;
+            windowMaxInFlight = 0;
+            updateLimit(shortRtt, maxInFlight);
+        } finally {
+            sampleLock.unlock();
+        }
+    }
+
+    // Called with sampleLock held, once per window
+    private void updateLimit(double shortRtt, int maxInFlight) {
+        if (longRttNanos == 0) {
+            longRttNanos = shortRtt;
+            return;
+        }
+        // Baseline follows drops at once and rises only slowly, so a
+        // sustained overload is not mistaken for the new normal
+        longRttNanos = Math.min(shortRtt, longRttNanos * (1 + 1 / longWindow));
+
+        double current = limit;
+        if (maxInFlight < current / 2) {
+            return; // app-limited: no evidence the limit is too low
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, tolerance * longRttNanos / shortRtt));
+        double target = current * gradient + Math.sqrt(current);
+        double next = current * (1 - smoothing) + target * smoothing;
+        if (pressured) {
+            next = Math.min(next, current);
+        }
+        limit = clamp(next);
+    }
+
+    /**
+     * Sample the leading pressure signals and back off while either is high.
+     */
+    @Scheduled(fixedDelayString = "${orders.admission.sample-interval-ms:250}")
+    public void samplePressure() {
+        if (!enabled) {
+            return;
+        }
+        int pending = hikariPending();
+        double buffer = producerBufferUtilization();
+        boolean now = pending > hikariPendingThreshold || buffer > producerBufferThreshold;
+
+        if (now) {
+            sampleLock.lock();
+            try {
+                limit = clamp(limit * PRESSURE_BACKOFF);
+            } finally {
+                sampleLock.unlock();
+            }
+        }
+        if (now != pressured) {
+            log.warn("Admission pressure {}: hikariPending={}, producerBuffer={}%, limit={}",
+                    now ? "ON" : "OFF", pending, Math.round(buffer * 100), (int) limit);
+        }
+        pressured = now;
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    /**
+     * Read the pools directly: unwrapping a routing DataSource would resolve
+     * a single route (shard 0, primary side) on this unbound thread.
+     */
+    private int hikariPending() {
+        List<HikariDataSource> pools = replicaDataSources.hikariPools();
+        if (pools.isEmpty() && dataSource instanceof HikariDataSource single) {
+            pools = List.of(single); // plain spring.datasource pool
+        }
+        int pending = 0;
+        for (HikariDataSource pool : pools) {
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean != null) {
+                pending += mxBean.getThreadsAwaitingConnection();
+            }
+        }
+        return pending;
+    }
+
+    private double producerBufferUtilization() {
+        double total = 0;
+        double available = 0;
+        try {
+            for (Map.Entry<MetricName, ? extends Metric> entry : kafkaTemplate.metrics().entrySet()) {
+                String name = entry.getKey().name();
+                if ("buffer-total-bytes".equals(name)) {
+                    total = ((Number) entry.getValue().metricValue()).doubleValue();
+                } else if ("buffer-available-bytes".equals(name)) {
+                    available = ((Number) entry.getValue().metricValue()).doubleValue();
+                }
+            }
+        } catch (Exception e) {
+            log.debug("Producer metrics not available: {}", e.getMessage());
+        }
+        return total > 0 ? 1 - available / total : 0;
+    }
+}
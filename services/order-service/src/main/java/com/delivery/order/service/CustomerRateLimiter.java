@@ -0,0 +1,138 @@
+package com.delivery.order.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-customer rate limiting for order creation.
+ *
+ * CONCEPT: Token Bucket
+ * - Each customer has a bucket of {@code burst} tokens, refilled at
+ *   {@code requests-per-second}; every order takes one token
+ * - An empty bucket means 429 with Retry-After, so one misbehaving
+ *   integration cannot push everyone else's orders down the pipeline
+ *
+ * CONCEPT: Two Modes
+ * - local (default): a lock-free in-process {@link TokenBucketTable};
+ *   each replica enforces the limit on its own, so the effective limit
+ *   is the rate times the number of replicas
+ * - redis: one bucket per customer in Redis, updated atomically by a Lua
+ *   script using the Redis clock, so the limit holds across replicas.
+ *   If Redis is unreachable the local table is used (fail open per pod)
+ */
+@Component
+public class CustomerRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(CustomerRateLimiter.class);
+
+    /**
+     * KEYS[1] = bucket key; ARGV = tokens per ms, burst.
+     * Returns 0 if a token was taken, else milliseconds until one is available.
+     */
+    private static final RedisScript<Long> TOKEN_BUCKET = new DefaultRedisScript<>("""
+            local rate = tonumber(ARGV[1])
+            local burst = tonumber(ARGV[2])
+            local time = redis.call('TIME')
+            local now = time[1] * 1000 + math.floor(time[2] / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 't', 'ts')
+            local tokens = tonumber(bucket[1]) or burst
+            local ts = tonumber(bucket[2]) or now
+            tokens = math.min(burst, tokens + math.max(0, now - ts) * rate)
+            local wait = 0
+            if tokens >= 1 then
+              tokens = tokens - 1
+            else
+              wait = math.ceil((1 - tokens) / rate)
+            end
+            redis.call('HSET', KEYS[1], 't', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(burst / rate) + 1000)
+            return wait
+            """, Long.class);
+
+    private final boolean enabled;
+    private final TokenBucketTable table;
+    private final StringRedisTemplate redisTemplate;
+    private final String keyPrefix;
+    private final List<String> scriptArgs;
+    private final Counter rejected;
+    private final Counter redisFallbacks;
+
+    public CustomerRateLimiter(ObjectProvider<StringRedisTemplate> redisTemplate,
+            MeterRegistry registry,
+            @Value("${orders.rate-limit.enabled:true}") boolean enabled,
+            @Value("${orders.rate-limit.mode:local}") String mode,
+            @Value("${orders.rate-limit.requests-per-second:50}") double requestsPerSecond,
+            @Value("${orders.rate-limit.burst:100}") double burst,
+            @Value("${orders.rate-limit.table-size:65536}") int tableSize,
+            @Value("${orders.rate-limit.redis-key-prefix:orders:ratelimit:}") String keyPrefix) {
+        this.enabled = enabled;
+        boolean redisMode = "redis".equalsIgnoreCase(mode);
+        this.table = new TokenBucketTable(tableSize, requestsPerSecond, burst);
+        this.redisTemplate = redisMode ? redisTemplate.getIfAvailable() : null;
+        this.keyPrefix = keyPrefix;
+        this.scriptArgs = List.of(String.valueOf(requestsPerSecond / 1000), String.valueOf(burst));
+
+        if (redisMode && this.redisTemplate == null) {
+            log.warn("orders.rate-limit.mode=redis but no Redis is configured; limiting per replica");
+        }
+
+        this.rejected = Counter.builder("orders.rate-limit.rejected")
+                .description("Order requests rejected with 429 by the per-customer limit")
+                .register(registry);
+        this.redisFallbacks = Counter.builder("orders.rate-limit.redis.fallback")
+                .description("Rate-limit checks answered locally because Redis failed")
+                .register(registry);
+        Gauge.builder("orders.rate-limit.buckets", table, TokenBucketTable::size)
+                .description("Customers tracked in the local token-bucket table")
+                .register(registry);
+    }
+
+    /**
+     * Take one token for {@code customerId}.
+     *
+     * @return 0 if the request may proceed, otherwise milliseconds until it may be retried
+     */
+    public long tryAcquire(String customerId) {
+        if (!enabled || customerId == null) {
+            return 0;
+        }
+
+        long waitMillis = redisTemplate != null
+                ? acquireShared(customerId)
+                : acquireLocal(customerId);
+
+        if (waitMillis > 0) {
+            rejected.increment();
+        }
+        return waitMillis;
+    }
+
+    private long acquireLocal(String customerId) {
+        long waitNanos = table.tryAcquire(customerId, System.nanoTime());
+        // Round up: a sub-millisecond wait is still a rejection
+        return waitNanos > 0 ? TimeUnit.NANOSECONDS.toMillis(waitNanos + 999_999) : 0;
+    }
+
+    private long acquireShared(String customerId) {
+        try {
+            Long wait = redisTemplate.execute(TOKEN_BUCKET, List.of(keyPrefix + customerId), scriptArgs.toArray());
+            return wait != null ? wait : 0;
+        } catch (Exception e) {
+            redisFallbacks.increment();
+            log.debug("Redis rate limit unavailable, using local table: {}", e.getMessage());
+            return acquireLocal(customerId);
+        }
+    }
+}
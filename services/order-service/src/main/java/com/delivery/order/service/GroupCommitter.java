@@ -0,0 +1,145 @@
+package com.delivery.order.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Collects requests from many caller threads and commits them together.
+ *
+ * CONCEPT: Group Commit
+ * - Every transaction commit costs Postgres a WAL flush (fsync)
+ * - Under concurrency, callers drop their request in a queue and wait on a
+ *   future; writer threads take up to maxSize requests, waiting at most
+ *   maxWait for the group to fill, and commit them in ONE transaction
+ * - Each caller's future completes when its group commits, so a caller
+ *   waits at most maxWait plus one commit
+ * - If a group fails, its requests are retried one by one so a single bad
+ *   request cannot fail its neighbours
+ *
+ * @param <T> request type
+ * @param <R> result type, one per request, in request order
+ */
+class GroupCommitter<T, R> {
+
+    private static final Logger log = LoggerFactory.getLogger(GroupCommitter.class);
+
+    private final BlockingQueue<Pending<T, R>> queue;
+    private final Function<List<T>, List<R>> commitGroup;
+    private final Function<T, R> commitOne;
+    private final int maxSize;
+    private final long maxWaitNanos;
+    private final List<Thread> writers = new ArrayList<>();
+    private volatile boolean running = true;
+
+    GroupCommitter(String name, int maxSize, long maxWaitMicros, int writerCount, int queueCapacity,
+            Function<List<T>, List<R>> commitGroup, Function<T, R> commitOne) {
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.commitGroup = commitGroup;
+        this.commitOne = commitOne;
+        this.maxSize = maxSize;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+
+        for (int i = 0; i < writerCount; i++) {
+            Thread writer = new Thread(this::run, name + "-" + i);
+            writer.setDaemon(true);
+            writer.start();
+            writers.add(writer);
+        }
+    }
+
+    /**
+     * Queue a request. When the queue is full, the request is committed
+     * on the caller's thread instead, so callers are never parked on a
+     * backlog the writers cannot clear.
+     */
+    CompletableFuture<R> submit(T request) {
+        Pending<T, R> pending = new Pending<>(request, new CompletableFuture<>());
+        if (!running || !queue.offer(pending)) {
+            commitIndividually(List.of(pending));
+        }
+        return pending.result;
+    }
+
+    void shutdown() {
+        running = false;
+        writers.forEach(Thread::interrupt);
+        Pending<T, R> pending;
+        while ((pending = queue.poll()) != null) {
+            pending.result.completeExceptionally(new IllegalStateException("Shutting down"));
+        }
+    }
+
+    private void run() {
+        List<Pending<T, R>> group = new ArrayList<>(maxSize);
+        while (running) {
+            try {
+                Pending<T, R> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                group.add(first);
+
+                // Fill the group until it is full or the window closes;
+                // requests already queued are taken even after the deadline
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (group.size() < maxSize) {
+                    long remaining = deadline - System.nanoTime();
+                    Pending<T, R> next = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    group.add(next);
+                }
+
+                commit(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(p -> p.result.completeExceptionally(e));
+                return;
+            } finally {
+                group.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending<T, R>> group) {
+        List<T> requests = new ArrayList<>(group.size());
+        for (Pending<T, R> pending : group) {
+            requests.add(pending.request);
+        }
+
+        try {
+            List<R> results = commitGroup.apply(requests);
+            for (int i = 0; i < group.size(); i++) {
+                group.get(i).result.complete(results.get(i));
+            }
+            log.debug("Group committed {} requests", group.size());
+        } catch (Exception e) {
+            log.warn("Group of {} failed ({}), committing individually", group.size(), e.getMessage());
+            commitIndividually(group);
+        }
+    }
+
+    private void commitIndividually(List<Pending<T, R>> group) {
+        for (Pending<T, R> pending : group) {
+            try {
+                pending.result.complete(commitOne.apply(pending.request));
+            } catch (Exception e) {
+                pending.result.completeExceptionally(e);
+            }
+        }
+    }
+
+    private record Pending<T, R>(T request, CompletableFuture<R> result) {
+    }
+}
@@ -0,0 +1,11 @@
+package com.delivery.order.service;
+
+/**
+ * An Idempotency-Key was sent again with a different request body.
+ */
+public class IdempotencyKeyReuseException extends RuntimeException {
+
+    public IdempotencyKeyReuseException(String key) {
+        super("Idempotency-Key " + key + " was already used with a different request");
+    }
+}
@@ -0,0 +1,193 @@
+package com.delivery.order.service;
+
+import com.delivery.order.dto.OrderRequest;
+import com.delivery.order.dto.OrderResponse;
+import com.delivery.order.entity.IdempotencyRecord;
+import com.delivery.order.entity.Order;
+import com.delivery.order.replica.ReadRouting;
+import com.delivery.order.repository.IdempotencyRecordRepository;
+import com.delivery.order.shard.ShardRouter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key handling for POST /api/orders.
+ *
+ * CONCEPT: Three Lookups, Cheapest First
+ * 1. Caffeine cache (bounded, in-process) — a retry is answered from
+ *    memory without touching the database or Kafka
+ * 2. In-flight map — concurrent requests with the same key wait on the
+ *    first one's future instead of racing it (request coalescing)
+ * 3. idempotency_records table — survives restarts and covers retries
+ *    that land on another pod; written in the order's own transaction
+ *
+ * Only successful outcomes are stored; a failed request can be retried
+ * with the same key. Reusing a key with a different body is rejected.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository repository;
+    private final ShardRouter shardRouter;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, StoredResponse> cache;
+    private final ConcurrentMap<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration retention;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+            ShardRouter shardRouter,
+            ObjectMapper objectMapper,
+            @Value("${orders.idempotency.cache-size:100000}") long cacheSize,
+            @Value("${orders.idempotency.retention-hours:24}") long retentionHours) {
+        this.repository = repository;
+        this.shardRouter = shardRouter;
+        this.objectMapper = objectMapper;
+        this.retention = Duration.ofHours(retentionHours);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(retention)
+                .build();
+    }
+
+    /**
+     * A stored outcome. {@code replayed} is true when it was answered from
+     * a previous request rather than produced by this one.
+     */
+    public record StoredResponse(int statusCode, String body, String requestHash, boolean replayed) {
+
+        StoredResponse replayFor(String key, String hash) {
+            if (!requestHash.equals(hash)) {
+                throw new IdempotencyKeyReuseException(key);
+            }
+            return replayed ? this : new StoredResponse(statusCode, body, requestHash, true);
+        }
+    }
+
+    /**
+     * Run {@code createOrder} at most once per key.
+     *
+     * @param key         The client's Idempotency-Key header
+     * @param request     The request body (fingerprinted to detect key reuse)
+     * @param createOrder Creates the order; must call {@link #record} in its transaction
+     */
+    public StoredResponse execute(String key, OrderRequest request, Supplier<Order> createOrder) {
+        String hash = fingerprint(request);
+
+        StoredResponse cached = cache.getIfPresent(key);
+        if (cached != null) {
+            return cached.replayFor(key, hash);
+        }
+
+        // CONCEPT: Request Coalescing
+        // The first request for a key registers a future; duplicates wait on it
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            log.info("Coalescing concurrent request for Idempotency-Key={}", key);
+            try {
+                return leader.join().replayFor(key, hash);
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+            }
+        }
+
+        try {
+            StoredResponse response = lookup(key)
+                    .map(stored -> stored.replayFor(key, hash))
+                    .orElseGet(() -> create(key, hash, createOrder));
+            cache.put(key, response);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    /**
+     * Store the outcome for {@code key}. Joins the caller's transaction, so
+     * the record commits (or rolls back) together with the order.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String key, OrderRequest request, Order order) {
+        repository.save(IdempotencyRecord.create(
+                key, fingerprint(request), HttpStatus.CREATED.value(), toJson(OrderResponse.from(order))));
+    }
+
+    /**
+     * Drop durable records past the retention window (the cache expires on its own).
+     */
+    @Scheduled(fixedDelayString = "${orders.idempotency.cleanup-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        shardRouter.forEachShard(() -> {
+            int deleted = repository.deleteOlderThan(cutoff);
+            if (deleted > 0) {
+                log.info("Purged {} expired idempotency records", deleted);
+            }
+        });
+    }
+
+    private StoredResponse create(String key, String hash, Supplier<Order> createOrder) {
+        try {
+            Order order = createOrder.get();
+            return new StoredResponse(HttpStatus.CREATED.value(),
+                    toJson(OrderResponse.from(order)), hash, false);
+        } catch (DataIntegrityViolationException e) {
+            // Another pod committed this key first; replay its outcome
+            return lookup(key)
+                    .map(stored -> stored.replayFor(key, hash))
+                    .orElseThrow(() -> e);
+        }
+    }
+
+    private Optional<StoredResponse> lookup(String key) {
+        // The record lives on the key's shard (see ShardRouter); never trust a lagging replica here
+        return ReadRouting.onPrimary(() -> shardRouter.callOn(shardRouter.shardFor(key), () -> repository.findById(key)))
+                .map(r -> new StoredResponse(r.getStatusCode(), r.getResponseBody(), r.getRequestHash(), true));
+    }
+
+    private String fingerprint(OrderRequest request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(objectMapper.writeValueAsBytes(request)));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new RuntimeException("Failed to fingerprint request", e);
+        }
+    }
+
+    private String toJson(OrderResponse response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize order response", e);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.delivery.order.service;
+
+import com.delivery.order.dto.OrderResponse;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Near cache of order responses for GET /api/orders/{orderId}.
+ *
+ * CONCEPT: Near Cache
+ * - Status-polling clients read the same few orders over and over; the
+ *   response projection is kept in-process so repeat reads skip Postgres
+ * - Bounded by size (LRU-ish eviction) and by TTL, which also bounds how
+ *   stale another pod's copy can be after this pod changes an order
+ *
+ * CONCEPT: Load Coalescing
+ * - Caffeine runs at most one loader per key; concurrent misses for the
+ *   same order wait for that load instead of each querying the database
+ * - Loader failures (e.g. order not found) are not cached
+ *
+ * CONCEPT: Invalidate After Commit
+ * - Evicting before commit would let a concurrent miss reload the old row
+ *   and cache it again; the entry is evicted immediately AND once more
+ *   after the transaction commits
+ *
+ * Hits, misses and evictions are exported as cache_gets_total /
+ * cache_evictions_total with cache="orders.near-cache".
+ */
+@Component
+public class OrderCache {
+
+    static final String CACHE_NAME = "orders.near-cache";
+
+    private final Cache<String, OrderResponse> cache;
+
+    public OrderCache(MeterRegistry registry,
+            @Value("${orders.cache.max-size:50000}") long maxSize,
+            @Value("${orders.cache.ttl-ms:2000}") long ttlMs) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMs))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the cached response, or load it once for all concurrent callers.
+     */
+    public OrderResponse get(String orderId, Function<String, OrderResponse> loader) {
+        return cache.get(orderId, loader);
+    }
+
+    /**
+     * Drop {@code orderId}, and again after the current transaction commits
+     * (if there is one).
+     */
+    public void invalidate(String orderId) {
+        cache.invalidate(orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(orderId);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.delivery.order.service;
+
+import com.delivery.order.dto.HistoryCursor;
+import com.delivery.order.dto.OrderSummary;
+import com.delivery.order.replica.ReadRouting;
+import com.delivery.order.repository.OrderRepository;
+import com.delivery.order.shard.ShardRouter;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Pages through a customer's orders, newest first.
+ * 
+ * CONCEPT: Stream, Don't Buffer
+ * - Rows come off a JDBC cursor (fetch size 100) and go straight to the
+ *   caller's sink, which writes them to the HTTP response; a page is
+ *   never materialized as a List
+ * 
+ * CONCEPT: Merging Shards
+ * - With sharding, a customer's orders are spread over every shard; each
+ *   shard returns its own first `limit` rows after the cursor (the same
+ *   index range scan as unsharded) and the pages are merged by
+ *   (createdAt, id), keeping the first `limit`
+ * - Memory is bounded by limit x shards; latency by the slowest shard
+ * 
+ * Reads are read-only transactions, served by a replica when configured,
+ * except right after this pod wrote an order for the customer.
+ */
+@Service
+public class OrderHistoryService {
+
+    private static final Comparator<OrderSummary> NEWEST_FIRST =
+            Comparator.comparing(OrderSummary::cursor, HistoryCursor.NEWEST_FIRST);
+
+    private final OrderRepository orderRepository;
+    private final ShardRouter shardRouter;
+    private final ReadRouting readRouting;
+    private final OrderHistoryService self; // self-injection for @Transactional proxy
+
+    public OrderHistoryService(OrderRepository orderRepository,
+            ShardRouter shardRouter,
+            ReadRouting readRouting,
+            @Lazy OrderHistoryService self) {
+        this.orderRepository = orderRepository;
+        this.shardRouter = shardRouter;
+        this.readRouting = readRouting;
+        this.self = self;
+    }
+
+    /**
+     * Emit up to {@code limit} of the customer's orders after {@code cursor}
+     * (from the newest when null) to {@code sink}, in history order.
+     * 
+     * @return Number of orders emitted
+     */
+    public int forEachOrder(String customerId, HistoryCursor cursor, int limit, Consumer<OrderSummary> sink) {
+        return readRouting.route(customerId, () -> {
+            if (!shardRouter.isSharded()) {
+                return self.streamPage(customerId, cursor, limit, sink);
+            }
+
+            List<OrderSummary> merged = new ArrayList<>();
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                shardRouter.runOn(shard, () -> self.streamPage(customerId, cursor, limit, merged::add));
+            }
+            merged.sort(NEWEST_FIRST);
+            List<OrderSummary> page = merged.subList(0, Math.min(limit, merged.size()));
+            page.forEach(sink);
+            return page.size();
+        });
+    }
+
+    /**
+     * Stream one page from the current shard inside a read-only transaction
+     * (the result Stream needs the connection until it is consumed).
+     */
+    @Transactional(readOnly = true)
+    public int streamPage(String customerId, HistoryCursor cursor, int limit, Consumer<OrderSummary> sink) {
+        try (Stream<OrderSummary> rows = cursor == null
+                ? orderRepository.streamHistory(customerId, Limit.of(limit))
+                : orderRepository.streamHistoryBefore(customerId, cursor.createdAt(), cursor.id(), Limit.of(limit))) {
+            int count = 0;
+            for (Iterator<OrderSummary> it = rows.iterator(); it.hasNext(); count++) {
+                sink.accept(it.next());
+            }
+            return count;
+        }
+    }
+}
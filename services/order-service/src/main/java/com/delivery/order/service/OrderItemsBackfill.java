@@ -0,0 +1,98 @@
+package com.delivery.order.service;
+
+import com.delivery.order.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Copies order_items rows into orders.line_items for orders written
+ * before the JSONB layout existed.
+ *
+ * CONCEPT: Online Backfill
+ * - Each pass fills up to batch-size orders in ONE statement: the CTE
+ *   locks a batch of unfilled orders (FOR UPDATE SKIP LOCKED, so several
+ *   pods can run it side by side) and the UPDATE aggregates their items
+ *   with jsonb_agg
+ * - Orders without items get an empty array, so no row is picked twice
+ * - Short statements keep row locks brief while traffic continues
+ *
+ * Run it with orders.items.layout=DUAL (new orders fill both places);
+ * once it reports complete, switch to JSONB.
+ */
+@Component
+public class OrderItemsBackfill {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderItemsBackfill.class);
+
+    private static final String FILL_BATCH = """
+            WITH batch AS (
+                SELECT id FROM orders
+                 WHERE line_items IS NULL
+                 ORDER BY id
+                 LIMIT ?
+                   FOR UPDATE SKIP LOCKED
+            )
+            UPDATE orders o
+               SET line_items = COALESCE((
+                       SELECT jsonb_agg(jsonb_build_object(
+                                  'itemId', oi.item_id,
+                                  'quantity', oi.quantity,
+                                  'unitPrice', oi.unit_price) ORDER BY oi.id)
+                         FROM order_items oi
+                        WHERE oi.order_id = o.id), '[]'::jsonb)
+              FROM batch
+             WHERE o.id = batch.id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ShardRouter shardRouter;
+    private final boolean enabled;
+    private final int batchSize;
+    private volatile boolean complete;
+
+    public OrderItemsBackfill(JdbcTemplate jdbcTemplate,
+            ShardRouter shardRouter,
+            @Value("${orders.items.backfill.enabled:false}") boolean enabled,
+            @Value("${orders.items.backfill.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.shardRouter = shardRouter;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${orders.items.backfill.interval-ms:1000}")
+    public void run() {
+        if (!enabled || complete) {
+            return;
+        }
+        try {
+            long total = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                total += shardRouter.callOn(shard, this::fillShard);
+            }
+
+            if (total > 0) {
+                log.info("Backfilled line_items for {} orders", total);
+            } else {
+                complete = true;
+                log.info("line_items backfill complete; orders.items.layout can be switched to JSONB");
+            }
+        } catch (Exception e) {
+            log.error("line_items backfill failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private long fillShard() {
+        int filled;
+        long total = 0;
+        do {
+            filled = jdbcTemplate.update(FILL_BATCH, batchSize);
+            total += filled;
+        } while (filled == batchSize);
+        return total;
+    }
+}
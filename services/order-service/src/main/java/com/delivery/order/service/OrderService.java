@@ -4,16 +4,26 @@ import com.delivery.order.dto.OrderCreatedPayload;
 import com.delivery.order.dto.OrderCreatedPayload.OrderItemDetail;
 import com.delivery.order.dto.OrderItemRequest;
 import com.delivery.order.dto.OrderRequest;
+import com.delivery.order.dto.OrderResponse;
+import com.delivery.order.entity.ItemsLayout;
 import com.delivery.order.entity.Order;
-import com.delivery.order.entity.OrderItem;
+import com.delivery.order.partition.OrderPartitions;
 import com.delivery.order.publisher.OrderEventPublisher;
+import com.delivery.order.replica.ReadRouting;
 import com.delivery.order.repository.OrderRepository;
+import com.delivery.order.shard.ShardRouter;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
 import java.util.stream.Collectors;
 
 /**
@@ -26,9 +36,19 @@ import java.util.stream.Collectors;
  * 
  * Flow:
  * 1. Create Order entity from request
- * 2. Add items and calculate total
+ * 2. Add items and calculate total (written per orders.items.layout, see ItemsLayout)
  * 3. Save to Postgres
- * 4. Publish order.created event to Kafka
+ * 4. Queue order.created in the outbox (same transaction; OutboxRelay publishes it)
+ * 
+ * With orders.group-commit.enabled, concurrent single-order requests are
+ * committed together in small groups (see {@link GroupCommitter}).
+ * 
+ * With orders.sharding.enabled, every write picks its shard first and
+ * runs its transaction there (see {@link ShardRouter}); a group or a
+ * batch chunk never spans shards.
+ * 
+ * With orders.read-replicas.enabled, order reads run in read-only
+ * transactions that may be served by a replica (see {@link ReadRouting}).
  */
 @Service
 public class OrderService {
@@ -37,11 +57,96 @@ public class OrderService {
 
         private final OrderRepository orderRepository;
         private final OrderEventPublisher orderEventPublisher;
+        private final IdempotencyService idempotencyService;
+        private final OrderCache orderCache;
+        private final ShardRouter shardRouter;
+        private final ReadRouting readRouting;
+        private final OrderPartitions partitions;
+        private final OrderService self; // self-injection for @Transactional proxy
+        private final ItemsLayout itemsLayout;
+        private final List<GroupCommitter<OrderSubmission, Order>> groupCommitters; // one per shard; empty when disabled
 
         public OrderService(OrderRepository orderRepository,
-                        OrderEventPublisher orderEventPublisher) {
+                        OrderEventPublisher orderEventPublisher,
+                        IdempotencyService idempotencyService,
+                        OrderCache orderCache,
+                        ShardRouter shardRouter,
+                        ReadRouting readRouting,
+                        OrderPartitions partitions,
+                        @Lazy OrderService self,
+                        @Value("${orders.items.layout:TABLE}") ItemsLayout itemsLayout,
+                        @Value("${orders.group-commit.enabled:false}") boolean groupCommitEnabled,
+                        @Value("${orders.group-commit.max-size:32}") int groupMaxSize,
+                        @Value("${orders.group-commit.max-wait-micros:2000}") long groupMaxWaitMicros,
+                        @Value("${orders.group-commit.writers:2}") int groupWriters,
+                        @Value("${orders.group-commit.queue-capacity:4096}") int groupQueueCapacity) {
                 this.orderRepository = orderRepository;
                 this.orderEventPublisher = orderEventPublisher;
+                this.idempotencyService = idempotencyService;
+                this.orderCache = orderCache;
+                this.shardRouter = shardRouter;
+                this.readRouting = readRouting;
+                this.partitions = partitions;
+                this.self = self;
+                this.itemsLayout = itemsLayout;
+                this.groupCommitters = new ArrayList<>();
+                if (groupCommitEnabled) {
+                        for (int i = 0; i < shardRouter.shardCount(); i++) {
+                                int shard = i;
+                                groupCommitters.add(new GroupCommitter<>("order-group-commit-" + shard,
+                                                groupMaxSize, groupMaxWaitMicros, groupWriters, groupQueueCapacity,
+                                                submissions -> shardRouter.callOn(shard,
+                                                                () -> this.self.createSubmitted(submissions)),
+                                                submission -> shardRouter.callOn(shard,
+                                                                () -> this.self.createOrder(
+                                                                                submission.request(),
+                                                                                submission.idempotencyKey()))));
+                        }
+                }
+        }
+
+        @PreDestroy
+        void shutdown() {
+                groupCommitters.forEach(GroupCommitter::shutdown);
+        }
+
+        /**
+         * Entry point for single-order requests.
+         * 
+         * CONCEPT: Opt-in Group Commit
+         * - Disabled: one transaction (and one fsync) per request, as before
+         * - Enabled: the request waits a few milliseconds at most to share a
+         *   transaction with concurrent requests; the caller still gets its
+         *   own order back, only after its group has committed
+         * 
+         * @param request        The incoming order request from the REST endpoint
+         * @param idempotencyKey The client's Idempotency-Key, recorded with the order (may be null)
+         * @return The created order
+         */
+        public Order placeOrder(OrderRequest request, String idempotencyKey) {
+                // A keyed order lives with its key's record; others are spread evenly
+                int shard = idempotencyKey != null
+                                ? shardRouter.shardFor(idempotencyKey)
+                                : shardRouter.nextShard();
+
+                Order order;
+                if (groupCommitters.isEmpty()) {
+                        order = shardRouter.callOn(shard, () -> self.createOrder(request, idempotencyKey));
+                } else {
+                        // A group is one transaction, so reject bad requests before they join one
+                        String error = validate(request);
+                        if (error != null) {
+                                throw new IllegalArgumentException(error);
+                        }
+                        try {
+                                order = groupCommitters.get(shard)
+                                                .submit(new OrderSubmission(request, idempotencyKey)).join();
+                        } catch (CompletionException e) {
+                                throw e.getCause() instanceof RuntimeException cause ? cause : e;
+                        }
+                }
+                readRouting.recordWrite(order.getOrderId(), order.getCustomerId());
+                return order;
         }
 
         /**
@@ -52,21 +157,20 @@ public class OrderService {
          */
         @Transactional
         public Order createOrder(OrderRequest request) {
+                return createOrder(request, null);
+        }
 
-                log.info("Creating order for customer: {}", request.getCustomerId());
+        /**
+         * Same as {@link #createOrder(OrderRequest)}, also storing the outcome
+         * under {@code idempotencyKey} in the same transaction.
+         */
+        @Transactional
+        public Order createOrder(OrderRequest request, String idempotencyKey) {
 
-                // Step 1: Create the order entity
-                Order order = Order.create(request.getCustomerId(), request.getCurrency());
+                log.info("Creating order for customer: {}", request.getCustomerId());
 
-                // Step 2: Add items from the request
-                for (OrderItemRequest itemReq : request.getItems()) {
-                        OrderItem item = OrderItem.create(
-                                        order,
-                                        itemReq.getItemId(),
-                                        itemReq.getQuantity(),
-                                        itemReq.getUnitPrice());
-                        order.addItem(item);
-                }
+                // Steps 1-2: Create the order entity with its items
+                Order order = buildOrder(request);
 
                 // Step 3: Save to database (cascade saves items too)
                 order = orderRepository.save(order);
@@ -74,12 +178,121 @@ public class OrderService {
                 log.info("Order saved: orderId={}, totalAmount={} {}",
                                 order.getOrderId(), order.getTotalAmount(), order.getCurrency());
 
-                // Step 4: Build event payload and publish
-                List<OrderItemDetail> itemDetails = order.getItems().stream()
-                                .map(item -> OrderItemDetail.from(
-                                                item.getItemId(),
-                                                item.getQuantity(),
-                                                item.getUnitPrice()))
+                // Step 4: Build event payload and queue it in the outbox
+                publishCreated(order);
+
+                if (idempotencyKey != null) {
+                        idempotencyService.record(idempotencyKey, request, order);
+                }
+
+                return order;
+        }
+
+        /**
+         * Create many orders in one transaction.
+         * 
+         * CONCEPT: JDBC Batching
+         * - Ids come from pooled sequences, so Hibernate knows them before INSERT
+         * - saveAll + hibernate.jdbc.batch_size groups the INSERTs for orders,
+         *   items and outbox rows into a few round trips instead of one each
+         * - Requests must already be validated; one bad row fails the batch
+         * 
+         * In sharded mode the whole chunk goes to one shard (round robin), so
+         * it is still one local transaction.
+         * 
+         * @param requests Valid order requests (see {@link #validate})
+         * @return The created orders, in request order
+         */
+        public List<Order> createOrders(List<OrderRequest> requests) {
+                List<OrderSubmission> submissions = new ArrayList<>(requests.size());
+                for (OrderRequest request : requests) {
+                        submissions.add(new OrderSubmission(request, null));
+                }
+                List<Order> orders = shardRouter.callOn(shardRouter.nextShard(), () -> self.createSubmitted(submissions));
+                for (Order order : orders) {
+                        readRouting.recordWrite(order.getOrderId(), order.getCustomerId());
+                }
+                return orders;
+        }
+
+        /**
+         * Batched create for submissions that may carry Idempotency-Keys
+         * (used by group commit).
+         */
+        @Transactional
+        public List<Order> createSubmitted(List<OrderSubmission> submissions) {
+                List<Order> orders = new ArrayList<>(submissions.size());
+                for (OrderSubmission submission : submissions) {
+                        orders.add(buildOrder(submission.request()));
+                }
+
+                orders = orderRepository.saveAll(orders);
+                for (int i = 0; i < orders.size(); i++) {
+                        publishCreated(orders.get(i));
+                        OrderSubmission submission = submissions.get(i);
+                        if (submission.idempotencyKey() != null) {
+                                idempotencyService.record(
+                                                submission.idempotencyKey(), submission.request(), orders.get(i));
+                        }
+                }
+
+                log.info("Batch saved: {} orders", orders.size());
+                return orders;
+        }
+
+        /**
+         * Check a request for problems that would otherwise surface as a
+         * database error (and, in a batch, fail every order with it).
+         * 
+         * @return An error message, or null if the request is valid
+         */
+        public String validate(OrderRequest request) {
+                if (request == null) {
+                        return "order is empty";
+                }
+                if (request.getCustomerId() == null || request.getCustomerId().isBlank()) {
+                        return "customerId is required";
+                }
+                if (request.getCurrency() == null || request.getCurrency().length() != 3) {
+                        return "currency must be a 3-letter code";
+                }
+                if (request.getItems() == null || request.getItems().isEmpty()) {
+                        return "items must not be empty";
+                }
+                for (OrderItemRequest item : request.getItems()) {
+                        if (item.getItemId() == null || item.getItemId().isBlank()) {
+                                return "itemId is required";
+                        }
+                        if (item.getQuantity() == null || item.getQuantity() <= 0) {
+                                return "quantity must be positive for item " + item.getItemId();
+                        }
+                        if (item.getUnitPrice() == null || item.getUnitPrice().signum() < 0) {
+                                return "unitPrice must not be negative for item " + item.getItemId();
+                        }
+                }
+                return null;
+        }
+
+        private Order buildOrder(OrderRequest request) {
+                // The transaction is already bound to a shard; the orderId must hash to it
+                String orderId = shardRouter.newOrderId(ShardRouter.currentShard());
+                Order order = Order.create(orderId, request.getCustomerId(), request.getCurrency());
+                for (OrderItemRequest itemReq : request.getItems()) {
+                        order.addItem(
+                                        itemReq.getItemId(),
+                                        itemReq.getQuantity(),
+                                        itemReq.getUnitPrice(),
+                                        itemsLayout);
+                }
+                return order;
+        }
+
+        private void publishCreated(Order order) {
+                List<OrderItemDetail> itemDetails = order.getLines().stream()
+                                .map(line -> OrderItemDetail.from(
+                                                line.itemId(),
+                                                line.quantity(),
+                                                line.unitPrice()))
                                 .collect(Collectors.toList());
 
                 OrderCreatedPayload payload = OrderCreatedPayload.from(
@@ -89,18 +302,57 @@ public class OrderService {
                                 itemDetails);
 
                 orderEventPublisher.publishOrderCreated(order.getOrderId(), payload);
+        }
 
-                return order;
+        /**
+         * Read one order and project it to its response, in a read-only
+         * transaction on the current shard (a replica when available).
+         * Time-ordered ids only touch the partitions around their timestamp.
+         * 
+         * @param orderId The UUID string business identifier
+         * @return The response projection, or empty if not found
+         */
+        @Transactional(readOnly = true)
+        public Optional<OrderResponse> readOrder(String orderId) {
+                OrderPartitions.CreatedAtWindow window = partitions.windowOf(orderId);
+                Optional<Order> order = window != null
+                                ? orderRepository.findByOrderIdAndCreatedAtBetween(orderId, window.from(), window.to())
+                                : orderRepository.findByOrderId(orderId);
+                return order.map(OrderResponse::from);
         }
 
         /**
-         * Find an order by its business ID.
+         * Look the order up on its shard. A miss is retried on the other
+         * shards, which only matters while the rebalancer is moving orders
+         * after a shard was added; replica routing (read-your-writes, miss
+         * retry on the primary) wraps the whole lookup.
+         */
+        private Optional<OrderResponse> findOrder(String orderId) {
+                return readRouting.read(orderId, () -> {
+                        int home = shardRouter.shardFor(orderId);
+                        Optional<OrderResponse> order = shardRouter.callOn(home, () -> self.readOrder(orderId));
+                        for (int shard = 0; order.isEmpty() && shard < shardRouter.shardCount(); shard++) {
+                                if (shard != home) {
+                                        order = shardRouter.callOn(shard, () -> self.readOrder(orderId));
+                                }
+                        }
+                        return order;
+                });
+        }
+
+        /**
+         * Read-side view of an order, served from the near cache.
+         * 
+         * CONCEPT: Cache-Aside with Coalescing
+         * - A hit never touches the database
+         * - Concurrent misses for one orderId share a single findByOrderId
+         * - Any change to the order row evicts it (see OrderCache)
          * 
          * @param orderId The UUID string business identifier
-         * @return The order, or empty if not found
+         * @return The response projection of the order
          */
-        public Order getOrder(String orderId) {
-                return orderRepository.findByOrderId(orderId)
-                                .orElseThrow(() -> new RuntimeException("Order not found: " + orderId));
+        public OrderResponse getOrderResponse(String orderId) {
+                return orderCache.get(orderId, id -> findOrder(id)
+                                .orElseThrow(() -> new RuntimeException("Order not found: " + id)));
         }
 }
@@ -0,0 +1,184 @@
+package com.delivery.order.service;
+
+import com.delivery.order.partition.OrderPartitions;
+import com.delivery.order.shard.ShardRouter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Applies downstream status transitions to the orders table.
+ *
+ * CONCEPT: Batched, Ordered UPDATEs
+ * - A poll's worth of transitions is first collapsed to the newest one per
+ *   order (by occurredAt), since only the last status survives anyway
+ * - The remaining UPDATEs are sorted by order_id and sent as ONE JDBC
+ *   batch in ONE transaction; a fixed lock order means two pods updating
+ *   overlapping orders cannot deadlock
+ *
+ * CONCEPT: Stale Transition Guard
+ * - Events for one order arrive on three topics, so their relative order
+ *   is not guaranteed; each UPDATE only applies if its occurredAt is newer
+ *   than the one stored with the current status
+ * - Redelivered events match nothing, so replays are harmless
+ *
+ * These are plain JDBC updates, not entity changes, so the near cache is
+ * invalidated here rather than by the entity listener.
+ *
+ * In sharded mode the batch is split by shard, one transaction each.
+ * Orders that matched nothing on their shard are retried on the others,
+ * in case the rebalancer moved them mid-flight (stale ones match nothing
+ * anywhere, as before).
+ *
+ * With orders partitioned by created_at, each UPDATE is also bounded to the
+ * created_at window of its time-ordered orderId, so it only probes the
+ * partitions in that window (see OrderPartitions).
+ */
+@Service
+public class OrderStatusProjector {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderStatusProjector.class);
+
+    private static final String UPDATE_STATUS = """
+            UPDATE orders
+               SET status = ?, status_occurred_at = ?, updated_at = ?
+             WHERE order_id = ?
+               AND (status_occurred_at IS NULL OR status_occurred_at < ?)
+            """;
+
+    // Unbounded (-infinity..infinity) for orderIds without a timestamp
+    private static final String UPDATE_STATUS_PRUNED = UPDATE_STATUS
+            + "   AND created_at BETWEEN ?::timestamptz AND ?::timestamptz\n";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OrderCache orderCache;
+    private final ShardRouter shardRouter;
+    private final OrderPartitions partitions;
+    private final OrderStatusProjector self; // self-injection for @Transactional proxy
+
+    public OrderStatusProjector(JdbcTemplate jdbcTemplate, OrderCache orderCache,
+            ShardRouter shardRouter, OrderPartitions partitions, @Lazy OrderStatusProjector self) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.orderCache = orderCache;
+        this.shardRouter = shardRouter;
+        this.partitions = partitions;
+        this.self = self;
+    }
+
+    /**
+     * Apply a batch of transitions, one transaction per shard.
+     *
+     * @param transitions Transitions in consumption order
+     * @return Number of orders whose status changed
+     */
+    public int apply(Collection<StatusTransition> transitions) {
+        List<StatusTransition> latest = latestPerOrder(transitions);
+        if (latest.isEmpty()) {
+            return 0;
+        }
+
+        List<List<StatusTransition>> byShard = new ArrayList<>();
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            byShard.add(new ArrayList<>());
+        }
+        for (StatusTransition t : latest) {
+            byShard.get(shardRouter.shardFor(t.orderId())).add(t);
+        }
+
+        int applied = 0;
+        List<StatusTransition> unmatched = new ArrayList<>();
+        for (int shard = 0; shard < byShard.size(); shard++) {
+            List<StatusTransition> batch = byShard.get(shard);
+            if (!batch.isEmpty()) {
+                List<StatusTransition> missed = shardRouter.callOn(shard, () -> self.applyOnShard(batch));
+                applied += batch.size() - missed.size();
+                unmatched.addAll(missed);
+            }
+        }
+
+        if (shardRouter.isSharded() && !unmatched.isEmpty()) {
+            applied += retryOnOtherShards(unmatched);
+        }
+
+        log.info("Status batch: {} events, {} orders, {} updated, {} stale or unknown",
+                transitions.size(), latest.size(), applied, latest.size() - applied);
+        return applied;
+    }
+
+    /**
+     * Apply transitions (sorted by orderId) on the current shard as one
+     * JDBC batch in one transaction.
+     *
+     * @return The transitions that matched no row
+     */
+    @Transactional
+    public List<StatusTransition> applyOnShard(List<StatusTransition> transitions) {
+        Timestamp now = Timestamp.from(Instant.now());
+        boolean pruned = partitions.isEnabled();
+        int[][] counts = jdbcTemplate.batchUpdate(pruned ? UPDATE_STATUS_PRUNED : UPDATE_STATUS,
+                transitions, transitions.size(), (ps, t) -> {
+                    Timestamp occurredAt = Timestamp.from(t.occurredAt());
+                    ps.setString(1, t.status().name());
+                    ps.setTimestamp(2, occurredAt);
+                    ps.setTimestamp(3, now);
+                    ps.setString(4, t.orderId());
+                    ps.setTimestamp(5, occurredAt);
+                    if (pruned) {
+                        OrderPartitions.CreatedAtWindow window = partitions.windowOf(t.orderId());
+                        ps.setString(6, window != null ? window.from().toString() : "-infinity");
+                        ps.setString(7, window != null ? window.to().toString() : "infinity");
+                    }
+                });
+
+        List<StatusTransition> unmatched = new ArrayList<>();
+        for (int i = 0; i < counts[0].length; i++) {
+            if (counts[0][i] != 0) {
+                orderCache.invalidate(transitions.get(i).orderId());
+            } else {
+                unmatched.add(transitions.get(i));
+            }
+        }
+        return unmatched;
+    }
+
+    private int retryOnOtherShards(List<StatusTransition> unmatched) {
+        int applied = 0;
+        for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+            int current = shard;
+            List<StatusTransition> candidates = unmatched.stream()
+                    .filter(t -> shardRouter.shardFor(t.orderId()) != current)
+                    .toList();
+            if (!candidates.isEmpty()) {
+                List<StatusTransition> missed = shardRouter.callOn(shard, () -> self.applyOnShard(candidates));
+                applied += candidates.size() - missed.size();
+            }
+        }
+        return applied;
+    }
+
+    /**
+     * Keep the newest transition per order; on equal occurredAt the later
+     * one in consumption order wins. Sorted by orderId for lock ordering.
+     */
+    private static List<StatusTransition> latestPerOrder(Collection<StatusTransition> transitions) {
+        Map<String, StatusTransition> latest = new HashMap<>();
+        for (StatusTransition t : transitions) {
+            latest.merge(t.orderId(), t,
+                    (current, next) -> next.occurredAt().isBefore(current.occurredAt()) ? current : next);
+        }
+        List<StatusTransition> sorted = new ArrayList<>(latest.values());
+        sorted.sort((a, b) -> a.orderId().compareTo(b.orderId()));
+        return sorted;
+    }
+}
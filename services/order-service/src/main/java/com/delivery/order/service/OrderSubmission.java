@@ -0,0 +1,10 @@
+package com.delivery.order.service;
+
+import com.delivery.order.dto.OrderRequest;
+
+/**
+ * A single-order request on its way to a transaction, together with the
+ * client's Idempotency-Key (null if none was sent).
+ */
+public record OrderSubmission(OrderRequest request, String idempotencyKey) {
+}
@@ -0,0 +1,15 @@
+package com.delivery.order.service;
+
+import com.delivery.order.entity.OrderStatus;
+
+import java.time.Instant;
+
+/**
+ * A status change reported by a downstream event.
+ *
+ * @param orderId    Business identifier of the order
+ * @param status     The status the event moves the order to
+ * @param occurredAt When the event happened at its producer
+ */
+public record StatusTransition(String orderId, OrderStatus status, Instant occurredAt) {
+}
@@ -0,0 +1,114 @@
+package com.delivery.order.service;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free table of token buckets keyed by string.
+ *
+ * CONCEPT: Immutable Buckets + CAS
+ * - Each slot holds an immutable Bucket (key, tokens, last refill time)
+ * - Taking a token computes the refilled bucket and swaps it in with
+ *   compareAndSet; on a lost race the caller simply re-reads and retries
+ * - No locks, so request threads never wait on each other
+ *
+ * CONCEPT: Set-Associative Eviction
+ * - A key may live in one of WAYS adjacent slots (its "set")
+ * - A new key takes an empty slot of its set, or else replaces the bucket
+ *   that has been idle longest; the table never grows past its capacity
+ * - An evicted key starts again with a full bucket. Buckets idle for
+ *   burst/rate are full anyway, so only hot sets lose anything
+ *
+ * Two threads inserting the same new key at the same moment can each
+ * claim a slot; the spare copy is never refilled again, so it soon becomes
+ * the longest-idle bucket of its set and is the next one evicted.
+ */
+final class TokenBucketTable {
+
+    static final int WAYS = 4;
+
+    private final AtomicReferenceArray<Bucket> slots;
+    private final int setMask;
+    private final double tokensPerNano;
+    private final double burst;
+
+    /**
+     * @param capacity          Maximum number of buckets (rounded up to a power of two)
+     * @param tokensPerSecond   Refill rate
+     * @param burst             Bucket size (requests allowed back to back)
+     */
+    TokenBucketTable(int capacity, double tokensPerSecond, double burst) {
+        int size = Math.max(WAYS, Integer.highestOneBit(Math.max(1, capacity - 1)) << 1);
+        this.slots = new AtomicReferenceArray<>(size);
+        this.setMask = (size - 1) & ~(WAYS - 1);
+        this.tokensPerNano = tokensPerSecond / 1_000_000_000d;
+        this.burst = burst;
+    }
+
+    private record Bucket(String key, double tokens, long refilledAt) {
+    }
+
+    /**
+     * Take one token for {@code key}.
+     *
+     * @param nowNanos Current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise nanoseconds until one is available
+     */
+    long tryAcquire(String key, long nowNanos) {
+        int set = spread(key.hashCode()) & setMask;
+
+        while (true) {
+            int victim = -1;
+            Bucket victimBucket = null;
+
+            for (int i = 0; i < WAYS; i++) {
+                int index = set + i;
+                Bucket bucket = slots.get(index);
+                if (bucket == null) {
+                    if (victim < 0 || victimBucket != null) {
+                        victim = index;
+                        victimBucket = null;
+                    }
+                    continue;
+                }
+                if (bucket.key().equals(key)) {
+                    double tokens = Math.min(burst,
+                            bucket.tokens() + Math.max(0, nowNanos - bucket.refilledAt()) * tokensPerNano);
+                    if (tokens < 1) {
+                        return (long) Math.ceil((1 - tokens) / tokensPerNano);
+                    }
+                    long refilledAt = Math.max(nowNanos, bucket.refilledAt());
+                    if (slots.compareAndSet(index, bucket, new Bucket(key, tokens - 1, refilledAt))) {
+                        return 0;
+                    }
+                    victim = -2; // lost a race on this slot; re-read the set
+                    break;
+                }
+                if (victim < 0 || (victimBucket != null && bucket.refilledAt() < victimBucket.refilledAt())) {
+                    victim = index;
+                    victimBucket = bucket;
+                }
+            }
+
+            if (victim >= 0
+                    && slots.compareAndSet(victim, victimBucket, new Bucket(key, burst - 1, nowNanos))) {
+                return 0;
+            }
+        }
+    }
+
+    /** Number of occupied slots (a full scan; for metrics only). */
+    int size() {
+        int size = 0;
+        for (int i = 0; i < slots.length(); i++) {
+            if (slots.get(i) != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+
+    private static int spread(int hash) {
+        int h = hash * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,75 @@
+package com.delivery.order.shard;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Maps keys to shards with consistent hashing.
+ *
+ * CONCEPT: Hash Ring with Virtual Nodes
+ * - Every shard is placed on a 64-bit ring at {@code virtualNodes}
+ *   points, each the hash of "name#i"; a key belongs to the first point
+ *   at or after its own hash (wrapping around)
+ * - Points depend only on shard NAMES, so adding a shard moves roughly
+ *   1/N of the keys (those now closest to its points) and leaves the
+ *   rest where they are
+ * - Many points per shard keep the split even
+ *
+ * Immutable; the ring is two sorted parallel arrays searched with
+ * binary search, so a lookup allocates nothing.
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] owners;
+
+    public ConsistentHashRing(List<String> shardNames, int virtualNodes) {
+        if (shardNames.isEmpty()) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        int size = shardNames.size() * virtualNodes;
+        long[][] entries = new long[size][];
+        int n = 0;
+        for (int shard = 0; shard < shardNames.size(); shard++) {
+            for (int v = 0; v < virtualNodes; v++) {
+                entries[n++] = new long[] { hash(shardNames.get(shard) + "#" + v), shard };
+            }
+        }
+        Arrays.sort(entries, (a, b) -> Long.compare(a[0], b[0]));
+
+        this.points = new long[size];
+        this.owners = new int[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = entries[i][0];
+            owners[i] = (int) entries[i][1];
+        }
+    }
+
+    /** Index (into the configured shard list) of the shard owning {@code key}. */
+    public int shardFor(String key) {
+        int i = Arrays.binarySearch(points, hash(key));
+        if (i < 0) {
+            i = -i - 1;
+        }
+        return owners[i == points.length ? 0 : i];
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3
+     * mixer so that similar keys (e.g. sequential UUIDv7s) spread evenly.
+     */
+    static long hash(String key) {
+        long h = 0xcbf29ce484222325L;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b;
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
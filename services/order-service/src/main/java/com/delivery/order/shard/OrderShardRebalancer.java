@@ -0,0 +1,306 @@
+package com.delivery.order.shard;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves orders to the shard that owns them after the shard list changed.
+ *
+ * CONCEPT: Online Rebalancing
+ * - Adding a shard to the ring only re-homes ~1/N of the orderIds; this
+ *   job walks each shard by id (keyset scan), picks the orders whose
+ *   shardFor(orderId) is now another shard, and moves them in batches
+ * - Per batch: lock the movers on the source (FOR UPDATE SKIP LOCKED),
+ *   copy order + items to the target and COMMIT the target, then delete
+ *   them from the source and commit it
+ * - If the pod dies between the two commits the order exists twice; the
+ *   next pass finds the source copy again and the target insert is a
+ *   no-op (ON CONFLICT DO NOTHING on the order_id key), so the move just completes
+ * - Idempotency-Key records are moved the same way, by shardFor(key)
+ *
+ * While a move is in flight, reads and status updates that miss on the
+ * owning shard fall back to the other shards (see OrderService#findOrder
+ * and OrderStatusProjector). Outbox rows are not moved: they are relayed
+ * from whichever shard wrote them.
+ */
+@Component
+@ConditionalOnProperty(name = "orders.sharding.rebalance.enabled", havingValue = "true")
+public class OrderShardRebalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(OrderShardRebalancer.class);
+
+    private static final String SCAN_ORDERS =
+            "SELECT id, order_id FROM orders WHERE id > ? ORDER BY id LIMIT ?";
+
+    private static final String LOCK_ORDER = """
+            SELECT order_id, customer_id, total_amount, currency, status,
+                   status_occurred_at, created_at, updated_at, line_items::text
+              FROM orders WHERE id = ?
+               FOR UPDATE SKIP LOCKED
+            """;
+
+    private static final String SELECT_ITEMS =
+            "SELECT item_id, quantity, unit_price FROM order_items WHERE order_id = ? ORDER BY id";
+
+    private static final String INSERT_ORDER = """
+            INSERT INTO orders (id, order_id, customer_id, total_amount, currency, status,
+                                status_occurred_at, created_at, updated_at, line_items)
+            VALUES (nextval('orders_seq'), ?, ?, ?, ?, ?, ?, ?, ?, ?::jsonb)
+            ON CONFLICT DO NOTHING
+            RETURNING id
+            """;
+
+    private static final String INSERT_ITEM = """
+            INSERT INTO order_items (id, order_id, item_id, quantity, unit_price)
+            VALUES (nextval('order_items_seq'), ?, ?, ?, ?)
+            """;
+
+    private static final String DELETE_ITEMS = "DELETE FROM order_items WHERE order_id = ?";
+    private static final String DELETE_ORDER = "DELETE FROM orders WHERE id = ?";
+
+    private static final String SCAN_KEYS = """
+            SELECT idempotency_key, request_hash, status_code, response_body, created_at
+              FROM idempotency_records WHERE idempotency_key > ?
+             ORDER BY idempotency_key LIMIT ?
+            """;
+
+    private static final String INSERT_KEY = """
+            INSERT INTO idempotency_records (idempotency_key, request_hash, status_code, response_body, created_at)
+            VALUES (?, ?, ?, ?, ?)
+            ON CONFLICT (idempotency_key) DO NOTHING
+            """;
+
+    private static final String DELETE_KEY = "DELETE FROM idempotency_records WHERE idempotency_key = ?";
+
+    private final ShardRouter shardRouter;
+    private final ShardRoutingDataSource dataSource;
+    private final int batchSize;
+    private volatile boolean complete;
+    private long skipped; // misplaced but locked by a writer in this pass
+
+    public OrderShardRebalancer(ShardRouter shardRouter,
+            ShardRoutingDataSource dataSource,
+            @Value("${orders.sharding.rebalance.batch-size:500}") int batchSize) {
+        this.shardRouter = shardRouter;
+        this.dataSource = dataSource;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * One full pass over every shard. Stops scheduling work once a pass
+     * finds nothing left to move.
+     */
+    @Scheduled(fixedDelayString = "${orders.sharding.rebalance.interval-ms:5000}")
+    public void run() {
+        if (complete) {
+            return;
+        }
+        try {
+            skipped = 0;
+            long orders = 0;
+            long keys = 0;
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                orders += moveOrders(shard);
+                keys += moveIdempotencyKeys(shard);
+            }
+
+            if (orders + keys + skipped > 0) {
+                log.info("Rebalanced {} orders and {} idempotency keys", orders, keys);
+            } else {
+                complete = true;
+                log.info("Shard rebalance complete; every order is on its owning shard");
+            }
+        } catch (Exception e) {
+            log.error("Shard rebalance failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    private long moveOrders(int source) throws SQLException {
+        long moved = 0;
+        long lastId = 0;
+        while (true) {
+            List<Long> misplaced = new ArrayList<>();
+            int scanned = 0;
+            try (Connection connection = dataSource.shard(source).getConnection();
+                    PreparedStatement scan = connection.prepareStatement(SCAN_ORDERS)) {
+                scan.setLong(1, lastId);
+                scan.setInt(2, batchSize);
+                try (ResultSet rs = scan.executeQuery()) {
+                    while (rs.next()) {
+                        scanned++;
+                        lastId = rs.getLong(1);
+                        if (shardRouter.shardFor(rs.getString(2)) != source) {
+                            misplaced.add(lastId);
+                        }
+                    }
+                }
+            }
+
+            if (!misplaced.isEmpty()) {
+                int batchMoved = moveBatch(source, misplaced);
+                moved += batchMoved;
+                skipped += misplaced.size() - batchMoved;
+            }
+            if (scanned < batchSize) {
+                return moved;
+            }
+        }
+    }
+
+    /** Move one batch of orders out of {@code source}; returns how many moved. */
+    private int moveBatch(int source, List<Long> ids) throws SQLException {
+        try (Connection from = dataSource.shard(source).getConnection()) {
+            from.setAutoCommit(false);
+            try {
+                int moved = 0;
+                for (long id : ids) {
+                    if (moveOrder(from, id)) {
+                        moved++;
+                    }
+                }
+                from.commit();
+                return moved;
+            } catch (SQLException e) {
+                from.rollback();
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Copy one locked order to its owning shard and commit there, then
+     * delete it from the source (committed by the caller). Skips orders
+     * that are locked by a concurrent writer; the next pass retries them.
+     */
+    private boolean moveOrder(Connection from, long id) throws SQLException {
+        String orderId;
+        Object[] row = new Object[9];
+        try (PreparedStatement lock = from.prepareStatement(LOCK_ORDER)) {
+            lock.setLong(1, id);
+            try (ResultSet rs = lock.executeQuery()) {
+                if (!rs.next()) {
+                    return false;
+                }
+                for (int i = 0; i < row.length; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                orderId = rs.getString(1);
+            }
+        }
+
+        List<Object[]> items = new ArrayList<>();
+        try (PreparedStatement select = from.prepareStatement(SELECT_ITEMS)) {
+            select.setLong(1, id);
+            try (ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    items.add(new Object[] {rs.getString(1), rs.getInt(2), rs.getBigDecimal(3)});
+                }
+            }
+        }
+
+        int target = shardRouter.shardFor(orderId);
+        try (Connection to = dataSource.shard(target).getConnection()) {
+            to.setAutoCommit(false);
+            try {
+                copyOrder(to, row, items);
+                to.commit();
+            } catch (SQLException e) {
+                to.rollback();
+                throw e;
+            }
+        }
+
+        try (PreparedStatement deleteItems = from.prepareStatement(DELETE_ITEMS);
+                PreparedStatement deleteOrder = from.prepareStatement(DELETE_ORDER)) {
+            deleteItems.setLong(1, id);
+            deleteItems.executeUpdate();
+            deleteOrder.setLong(1, id);
+            deleteOrder.executeUpdate();
+        }
+        return true;
+    }
+
+    private static void copyOrder(Connection to, Object[] row, List<Object[]> items) throws SQLException {
+        Long newId = null;
+        try (PreparedStatement insert = to.prepareStatement(INSERT_ORDER)) {
+            for (int i = 0; i < row.length; i++) {
+                insert.setObject(i + 1, row[i]);
+            }
+            try (ResultSet rs = insert.executeQuery()) {
+                if (rs.next()) {
+                    newId = rs.getLong(1);
+                }
+            }
+        }
+        if (newId == null) {
+            return; // copied by an earlier, interrupted pass
+        }
+
+        try (PreparedStatement insert = to.prepareStatement(INSERT_ITEM)) {
+            for (Object[] item : items) {
+                insert.setLong(1, newId);
+                insert.setString(2, (String) item[0]);
+                insert.setInt(3, (Integer) item[1]);
+                insert.setBigDecimal(4, (BigDecimal) item[2]);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private long moveIdempotencyKeys(int source) throws SQLException {
+        long moved = 0;
+        String lastKey = "";
+        while (true) {
+            List<Object[]> misplaced = new ArrayList<>();
+            int scanned = 0;
+            try (Connection connection = dataSource.shard(source).getConnection();
+                    PreparedStatement scan = connection.prepareStatement(SCAN_KEYS)) {
+                scan.setString(1, lastKey);
+                scan.setInt(2, batchSize);
+                try (ResultSet rs = scan.executeQuery()) {
+                    while (rs.next()) {
+                        scanned++;
+                        lastKey = rs.getString(1);
+                        if (shardRouter.shardFor(lastKey) != source) {
+                            misplaced.add(new Object[] {
+                                    lastKey, rs.getString(2), rs.getInt(3), rs.getString(4), rs.getObject(5)});
+                        }
+                    }
+                }
+            }
+
+            for (Object[] record : misplaced) {
+                String key = (String) record[0];
+                try (Connection to = dataSource.shard(shardRouter.shardFor(key)).getConnection();
+                        PreparedStatement insert = to.prepareStatement(INSERT_KEY)) {
+                    for (int i = 0; i < record.length; i++) {
+                        insert.setObject(i + 1, record[i]);
+                    }
+                    insert.executeUpdate();
+                }
+                try (Connection from = dataSource.shard(source).getConnection();
+                        PreparedStatement delete = from.prepareStatement(DELETE_KEY)) {
+                    delete.setString(1, key);
+                    delete.executeUpdate();
+                }
+                moved++;
+            }
+            if (scanned < batchSize) {
+                return moved;
+            }
+        }
+    }
+}
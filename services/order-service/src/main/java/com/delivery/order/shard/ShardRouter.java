@@ -0,0 +1,122 @@
+package com.delivery.order.shard;
+
+import com.delivery.common.id.TimeOrderedIds;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Decides which shard a piece of order data lives on, and binds the
+ * current thread to a shard for the duration of a unit of work.
+ *
+ * CONCEPT: Shard by orderId
+ * - An order lives on shardFor(orderId) (consistent hash, see
+ *   ConsistentHashRing); its items, outbox rows and Idempotency-Key
+ *   record are written in the same local transaction on the same shard
+ * - To pick the shard BEFORE the transaction starts, the write path
+ *   chooses a shard first and then draws UUIDv7 orderIds until one hashes
+ *   to it (about N draws for N shards)
+ * - Requests with an Idempotency-Key use shardFor(key), so the key's
+ *   record and its order always share a shard and the key's primary key
+ *   still rejects duplicates across pods
+ *
+ * CONCEPT: Thread-Bound Routing
+ * - ShardRoutingDataSource asks {@link #currentShard()} which pool to
+ *   take a connection from; {@link #callOn} sets it around the work
+ * - A transaction keeps the connection it started with, so the shard
+ *   must be chosen before a @Transactional method is entered; switching
+ *   shards inside a transaction is rejected
+ *
+ * With sharding disabled there is one shard and every call is a no-op
+ * around the work.
+ */
+@Component
+public class ShardRouter {
+
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final List<String> shardNames;
+    private final ConsistentHashRing ring;
+    private final AtomicInteger roundRobin = new AtomicInteger();
+
+    public ShardRouter(ShardingProperties properties) {
+        this.shardNames = properties.isEnabled()
+                ? properties.getShards().stream().map(ShardingProperties.Shard::getName).toList()
+                : List.of("default");
+        this.ring = new ConsistentHashRing(shardNames, properties.getVirtualNodes());
+    }
+
+    public boolean isSharded() {
+        return shardNames.size() > 1;
+    }
+
+    public int shardCount() {
+        return shardNames.size();
+    }
+
+    public String shardName(int shard) {
+        return shardNames.get(shard);
+    }
+
+    /** The shard that owns {@code key} (an orderId or an Idempotency-Key). */
+    public int shardFor(String key) {
+        return isSharded() ? ring.shardFor(key) : 0;
+    }
+
+    /** A shard for new data with no natural key; spreads writes evenly. */
+    public int nextShard() {
+        return isSharded() ? Math.floorMod(roundRobin.getAndIncrement(), shardNames.size()) : 0;
+    }
+
+    /** The shard the current thread is bound to (0 when unbound). */
+    public static int currentShard() {
+        Integer shard = CURRENT.get();
+        return shard != null ? shard : 0;
+    }
+
+    /** A new time-ordered orderId that hashes to {@code shard}. */
+    public String newOrderId(int shard) {
+        String orderId = TimeOrderedIds.next();
+        while (shardFor(orderId) != shard) {
+            orderId = TimeOrderedIds.next();
+        }
+        return orderId;
+    }
+
+    /** Run {@code work} with the thread bound to {@code shard}. */
+    public <T> T callOn(int shard, Supplier<T> work) {
+        Integer previous = CURRENT.get();
+        if (previous != null && previous != shard
+                && TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Cannot switch from shard " + previous
+                    + " to shard " + shard + " inside a transaction");
+        }
+        CURRENT.set(shard);
+        try {
+            return work.get();
+        } finally {
+            if (previous != null) {
+                CURRENT.set(previous);
+            } else {
+                CURRENT.remove();
+            }
+        }
+    }
+
+    public void runOn(int shard, Runnable work) {
+        callOn(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    /** Run {@code work} once per shard, in shard order. */
+    public void forEachShard(Runnable work) {
+        for (int shard = 0; shard < shardNames.size(); shard++) {
+            runOn(shard, work);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.delivery.order.shard;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The application's DataSource in sharded mode: hands out connections
+ * from the pool of the shard the current thread is bound to
+ * (see {@link ShardRouter#callOn}). Unbound threads get shard 0.
+ */
+public class ShardRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        this.shards = List.copyOf(shards);
+        Map<Object, Object> targets = new HashMap<>();
+        for (int i = 0; i < shards.size(); i++) {
+            targets.put(i, shards.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(shards.get(0));
+        afterPropertiesSet();
+    }
+
+    /** The pool of one shard, for jobs that talk to several shards at once. */
+    public DataSource shard(int index) {
+        return shards.get(index);
+    }
+
+    public List<DataSource> shards() {
+        return shards;
+    }
+
+    /** Close the shard pools (called by Spring on shutdown). */
+    public void close() throws Exception {
+        for (DataSource shard : shards) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return ShardRouter.currentShard();
+    }
+}
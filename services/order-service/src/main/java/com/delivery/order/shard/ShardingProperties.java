@@ -0,0 +1,104 @@
+package com.delivery.order.shard;
+
+import com.delivery.order.replica.ReadReplicaProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The shard map ({@code orders.sharding.*}).
+ *
+ * Shards are identified by name; the name, not the list position, decides
+ * which keys a shard owns. Append new shards to the end of the list and
+ * run the rebalancer; never rename or remove a shard that holds data.
+ */
+@ConfigurationProperties(prefix = "orders.sharding")
+public class ShardingProperties {
+
+    private boolean enabled = false;
+    private int virtualNodes = 1024;
+    private List<Shard> shards = new ArrayList<>();
+
+    public static class Shard {
+
+        private String name;
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 20;
+        private List<ReadReplicaProperties.Replica> replicas = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public List<ReadReplicaProperties.Replica> getReplicas() {
+            return replicas;
+        }
+
+        public void setReplicas(List<ReadReplicaProperties.Replica> replicas) {
+            this.replicas = replicas;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getVirtualNodes() {
+        return virtualNodes;
+    }
+
+    public void setVirtualNodes(int virtualNodes) {
+        this.virtualNodes = virtualNodes;
+    }
+
+    public List<Shard> getShards() {
+        return shards;
+    }
+
+    public void setShards(List<Shard> shards) {
+        this.shards = shards;
+    }
+}
@@ -0,0 +1,6 @@
+-- Runs before Hibernate's ddl-auto=update, which never changes an existing
+-- CHECK constraint: drop the status check generated before the
+-- DELIVERY_ASSIGNED order status existed. After partitioning, the old
+-- table (and its check) lives on as orders_legacy.
+ALTER TABLE IF EXISTS orders DROP CONSTRAINT IF EXISTS orders_status_check;
+ALTER TABLE IF EXISTS orders_legacy DROP CONSTRAINT IF EXISTS orders_status_check;
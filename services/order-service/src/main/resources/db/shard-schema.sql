@@ -0,0 +1,60 @@
+-- Order-service schema for every shard in sharded mode (orders.sharding.enabled).
+-- Applied at startup by ShardingConfig; every statement must be idempotent.
+-- Keep in step with the JPA entities (ddl-auto only reaches shard 0).
+--
+-- Sequences start at ${sequenceStart}: shard k starts at k * 10^15 + 1, so ids
+-- handed out by any shard's sequence never collide on another shard
+-- (Hibernate's pooled id blocks are shared by all shards in a pod).
+
+CREATE SEQUENCE IF NOT EXISTS orders_seq START WITH ${sequenceStart} INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS order_items_seq START WITH ${sequenceStart} INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS outbox_events_seq START WITH ${sequenceStart} INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS orders (
+    id                 bigint PRIMARY KEY,
+    order_id           varchar(255) NOT NULL UNIQUE,
+    customer_id        varchar(255) NOT NULL,
+    total_amount       numeric(10, 2) NOT NULL,
+    currency           varchar(3) NOT NULL,
+    status             varchar(255) NOT NULL,
+    status_occurred_at timestamp(6) with time zone,
+    created_at         timestamp(6) with time zone NOT NULL,
+    updated_at         timestamp(6) with time zone,
+    line_items         jsonb
+);
+
+CREATE INDEX IF NOT EXISTS idx_orders_customer_created_id ON orders (customer_id, created_at, id);
+
+-- Shards that were once single databases carry Hibernate's status check from
+-- before DELIVERY_ASSIGNED existed (see schema-upgrade.sql)
+ALTER TABLE IF EXISTS orders DROP CONSTRAINT IF EXISTS orders_status_check;
+ALTER TABLE IF EXISTS orders_legacy DROP CONSTRAINT IF EXISTS orders_status_check;
+
+CREATE TABLE IF NOT EXISTS order_items (
+    id         bigint PRIMARY KEY,
+    order_id   bigint NOT NULL,
+    item_id    varchar(255) NOT NULL,
+    quantity   integer NOT NULL,
+    unit_price numeric(10, 2) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id             bigint PRIMARY KEY,
+    topic          varchar(255) NOT NULL,
+    record_key     varchar(255) NOT NULL,
+    record_value   bytea NOT NULL,
+    event_id       varchar(255) NOT NULL,
+    event_type     varchar(255) NOT NULL,
+    correlation_id varchar(255),
+    schema_version integer,
+    occurred_at    timestamp(6) with time zone,
+    created_at     timestamp(6) with time zone NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS idempotency_records (
+    idempotency_key varchar(255) PRIMARY KEY,
+    request_hash    varchar(64) NOT NULL,
+    status_code     integer NOT NULL,
+    response_body   text NOT NULL,
+    created_at      timestamp(6) with time zone NOT NULL
+);
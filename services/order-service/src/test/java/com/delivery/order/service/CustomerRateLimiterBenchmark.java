@@ -0,0 +1,106 @@
+package com.delivery.order.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Per-request cost of the local rate limit: {@link CustomerRateLimiter#tryAcquire}
+ * (what {@code OrderController} pays) and the bare {@link TokenBucketTable}
+ * underneath it, from 1 to 64 threads.
+ *
+ * {@code customers} is how many distinct ids the requests spread over: 1 is a
+ * single hot customer (every thread CASes the same slot), and more ids than
+ * the table holds forces evictions. {@code limit=open} never rejects;
+ * {@code limit=default} uses the shipped 50 rps / burst 100, so a hot
+ * customer is mostly rejected and pays for the counter too.
+ *
+ * Run with {@code mvn -Pjmh test-compile exec:exec}; JMH options go in
+ * {@code -Djmh.args}, e.g. {@code -Djmh.args="-f 1 -wi 2 -i 3"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomerRateLimiterBenchmark {
+
+    private static final int TABLE_SIZE = 65536;
+
+    @Param({"1", "10000", "1000000"})
+    public int customers;
+
+    @Param({"open", "default"})
+    public String limit;
+
+    private String[] customerIds;
+    private CustomerRateLimiter limiter;
+    private TokenBucketTable table;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        customerIds = new String[customers];
+        for (int i = 0; i < customers; i++) {
+            customerIds[i] = "customer-" + i;
+        }
+
+        double rps = "open".equals(limit) ? 1e12 : 50;
+        double burst = "open".equals(limit) ? 1e12 : 100;
+        limiter = new CustomerRateLimiter(mock(ObjectProvider.class), new SimpleMeterRegistry(),
+                true, "local", rps, burst, TABLE_SIZE, "orders:ratelimit:");
+        table = new TokenBucketTable(TABLE_SIZE, rps, burst);
+    }
+
+    /** Each thread walks the ids from its own random starting point. */
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next = ThreadLocalRandom.current().nextInt(1 << 20);
+
+        String next(String[] ids) {
+            return ids[(next++ & Integer.MAX_VALUE) % ids.length];
+        }
+    }
+
+    @Benchmark
+    public long limiter(Cursor cursor) {
+        return limiter.tryAcquire(cursor.next(customerIds));
+    }
+
+    @Benchmark
+    public long table(Cursor cursor) {
+        return table.tryAcquire(cursor.next(customerIds), System.nanoTime());
+    }
+
+    /** One run per thread count, 1 to 64. */
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions cli = new CommandLineOptions(args);
+        for (int threads = 1; threads <= 64; threads *= 2) {
+            new Runner(new OptionsBuilder()
+                    .parent(cli)
+                    .include(CustomerRateLimiterBenchmark.class.getName())
+                    .threads(threads)
+                    .build()).run();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.delivery.payment.config;
+
+import com.delivery.common.event.EventTypes;
+import com.delivery.common.kafka.EventTypeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Header-based record filters for the Kafka listeners. Records of event types
+ * a listener does not handle are dropped by the container before the value
+ * is decoded.
+ */
+@Configuration
+public class KafkaListenerConfig {
+
+    /** Event types {@code PaymentEventListener} handles. */
+    @Bean
+    public EventTypeFilter inventoryEventFilter() {
+        return EventTypeFilter.accepting(EventTypes.INVENTORY_RESERVED);
+    }
+}
@@ -1,10 +1,11 @@
 package com.delivery.payment.listener;
 
+import com.delivery.common.codec.EventCodecs;
+import com.delivery.common.codec.LazyEnvelope;
 import com.delivery.common.event.EventTypes;
 import com.delivery.common.event.Topics;
+import com.delivery.payment.dto.InventoryEventPayload;
 import com.delivery.payment.service.PaymentProcessor;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -15,31 +16,38 @@ import java.math.BigDecimal;
 /**
  * Kafka consumer for inventory events. Triggers payment processing
  * when inventory is successfully reserved for an order.
+ *
+ * Other event types are dropped by {@code inventoryEventFilter} on the
+ * {@code eventType} record header; the switch below still routes records
+ * published without headers.
  */
 @Component
 public class PaymentEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(PaymentEventListener.class);
 
-    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
     private final PaymentProcessor paymentProcessor;
 
-    public PaymentEventListener(ObjectMapper objectMapper, PaymentProcessor paymentProcessor) {
-        this.objectMapper = objectMapper;
+    public PaymentEventListener(EventCodecs eventCodecs, PaymentProcessor paymentProcessor) {
+        this.eventCodecs = eventCodecs;
         this.paymentProcessor = paymentProcessor;
     }
 
-    @KafkaListener(topics = Topics.INVENTORY_EVENTS, groupId = "${spring.kafka.consumer.group-id}")
-    public void handleInventoryEvent(String message) {
-        log.info("Received inventory event: {}", message);
+    @KafkaListener(
+            topics = Topics.INVENTORY_EVENTS,
+            groupId = "${spring.kafka.consumer.group-id}",
+            filter = "inventoryEventFilter")
+    public void handleInventoryEvent(byte[] message) {
+        log.info("Received inventory event ({} bytes)", message.length);
 
         try {
-            JsonNode eventNode = objectMapper.readTree(message);
-            String eventType = eventNode.get("eventType").asText();
-            String orderId = eventNode.get("orderId").asText();
-            String eventId = eventNode.get("eventId").asText();
-            String correlationId = eventNode.has("correlationId")
-                    ? eventNode.get("correlationId").asText()
+            LazyEnvelope event = eventCodecs.read(message);
+            String eventType = event.getEventType();
+            String orderId = event.getOrderId();
+            String eventId = event.getEventId();
+            String correlationId = event.getCorrelationId() != null
+                    ? event.getCorrelationId()
                     : eventId;
 
             log.info("Processing event: type={}, orderId={}, eventId={}",
@@ -47,7 +55,7 @@ public class PaymentEventListener {
 
             switch (eventType) {
                 case EventTypes.INVENTORY_RESERVED:
-                    handleInventoryReserved(eventNode, eventId, correlationId);
+                    handleInventoryReserved(event, eventId, correlationId);
                     break;
                 case EventTypes.INVENTORY_REJECTED:
                     log.info("Inventory rejected for order: {}, skipping payment", orderId);
@@ -62,16 +70,16 @@ public class PaymentEventListener {
         }
     }
 
-    private void handleInventoryReserved(JsonNode eventNode, String eventId,
+    private void handleInventoryReserved(LazyEnvelope event, String eventId,
             String correlationId) {
-        String orderId = eventNode.get("orderId").asText();
-        JsonNode payload = eventNode.get("payload");
+        String orderId = event.getOrderId();
+        InventoryEventPayload payload = event.payload(InventoryEventPayload.class);
 
-        BigDecimal amount = payload.has("amount")
-                ? new BigDecimal(payload.get("amount").asText())
+        BigDecimal amount = payload.getAmount() != null
+                ? payload.getAmount()
                 : new BigDecimal("0.00");
-        String currency = payload.has("currency")
-                ? payload.get("currency").asText()
+        String currency = payload.getCurrency() != null
+                ? payload.getCurrency()
                 : "USD";
 
         log.info("Processing payment for order: {}, amount: {} {}", orderId, amount, currency);
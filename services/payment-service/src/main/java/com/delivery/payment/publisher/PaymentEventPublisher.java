@@ -1,13 +1,14 @@
 package com.delivery.payment.publisher;
 
+import com.delivery.common.codec.EventCodecs;
 import com.delivery.common.event.EventEnvelope;
 import com.delivery.common.event.EventTypes;
 import com.delivery.common.event.Topics;
+import com.delivery.common.kafka.EventHeaders;
 import com.delivery.payment.dto.PaymentEventPayload;
 import com.delivery.payment.entity.Payment;
 import com.delivery.payment.entity.PaymentStatus;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
@@ -23,13 +24,13 @@ public class PaymentEventPublisher {
     private static final Logger log = LoggerFactory.getLogger(PaymentEventPublisher.class);
     private static final String PRODUCER_NAME = "payment-service";
 
-    private final KafkaTemplate<String, String> kafkaTemplate;
-    private final ObjectMapper objectMapper;
+    private final KafkaTemplate<String, byte[]> kafkaTemplate;
+    private final EventCodecs eventCodecs;
 
-    public PaymentEventPublisher(KafkaTemplate<String, String> kafkaTemplate,
-            ObjectMapper objectMapper) {
+    public PaymentEventPublisher(KafkaTemplate<String, byte[]> kafkaTemplate,
+            EventCodecs eventCodecs) {
         this.kafkaTemplate = kafkaTemplate;
-        this.objectMapper = objectMapper;
+        this.eventCodecs = eventCodecs;
     }
 
     public void publishPaymentEvent(Payment payment, String correlationId) {
@@ -54,24 +55,20 @@ public class PaymentEventPublisher {
                 .payload(payload)
                 .build();
 
-        try {
-            String json = objectMapper.writeValueAsString(envelope);
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(
+                Topics.PAYMENT_EVENTS, payment.getOrderId(), eventCodecs.encode(Topics.PAYMENT_EVENTS, envelope));
+        EventHeaders.write(record.headers(), envelope);
 
-            kafkaTemplate.send(Topics.PAYMENT_EVENTS, payment.getOrderId(), json)
-                    .whenComplete((result, ex) -> {
-                        if (ex != null) {
-                            log.error("Failed to publish event for order={}: {}",
-                                    payment.getOrderId(), ex.getMessage());
-                        } else {
-                            log.info("Published {} for order={} to partition={}",
-                                    eventType, payment.getOrderId(),
-                                    result.getRecordMetadata().partition());
-                        }
-                    });
-
-        } catch (JsonProcessingException e) {
-            log.error("Failed to serialize event: {}", e.getMessage());
-            throw new RuntimeException("Event serialization failed", e);
-        }
+        kafkaTemplate.send(record)
+                .whenComplete((result, ex) -> {
+                    if (ex != null) {
+                        log.error("Failed to publish event for order={}: {}",
+                                payment.getOrderId(), ex.getMessage());
+                    } else {
+                        log.info("Published {} for order={} to partition={}",
+                                eventType, payment.getOrderId(),
+                                result.getRecordMetadata().partition());
+                    }
+                });
     }
 }
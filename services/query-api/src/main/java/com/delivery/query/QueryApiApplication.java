@@ -1,9 +1,12 @@
 package com.delivery.query;
 
+import com.delivery.common.metrics.VirtualThreadConfig;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Import;
 
 @SpringBootApplication
+@Import(VirtualThreadConfig.class)
 public class QueryApiApplication {
 
     public static void main(String[] args) {
@@ -0,0 +1,38 @@
+package com.delivery.query.config;
+
+import com.delivery.common.codec.EventCodecRegistry;
+import com.delivery.common.codec.EventCodecs;
+import com.delivery.common.event.EventTypes;
+import com.delivery.query.dto.DeliveryEventPayload;
+import com.delivery.query.dto.OrderCreatedPayload;
+import com.delivery.query.dto.PaymentAuthorizedPayload;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * Event codecs for decoding Kafka record values. The query-api only consumes,
+ * so no topic is configured for binary output; incoming records are decoded in
+ * whichever format they arrive.
+ *
+ * The registry binds the payloads the read model reads to their mirror classes.
+ */
+@Configuration
+public class EventCodecConfig {
+
+    @Bean
+    public EventCodecRegistry eventCodecRegistry(ObjectMapper objectMapper) {
+        return new EventCodecRegistry(objectMapper)
+                .register(EventTypes.ORDER_CREATED, OrderCreatedPayload.class)
+                .register(EventTypes.PAYMENT_AUTHORIZED, PaymentAuthorizedPayload.class)
+                .register(EventTypes.DELIVERY_ASSIGNED, DeliveryEventPayload.class)
+                .register(EventTypes.ETA_UPDATED, DeliveryEventPayload.class);
+    }
+
+    @Bean
+    public EventCodecs eventCodecs(EventCodecRegistry eventCodecRegistry) {
+        return new EventCodecs(eventCodecRegistry, List.of());
+    }
+}
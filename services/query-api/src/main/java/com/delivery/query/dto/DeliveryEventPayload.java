@@ -0,0 +1,40 @@
+package com.delivery.query.dto;
+
+import java.time.Instant;
+
+/**
+ * Mirrors the delivery.assigned / eta.updated payload fields the read model keeps.
+ */
+public class DeliveryEventPayload {
+
+    private String deliveryId;
+    private String driverName;
+    private Instant estimatedDeliveryTime;
+
+    public DeliveryEventPayload() {
+    }
+
+    public String getDeliveryId() {
+        return deliveryId;
+    }
+
+    public void setDeliveryId(String deliveryId) {
+        this.deliveryId = deliveryId;
+    }
+
+    public String getDriverName() {
+        return driverName;
+    }
+
+    public void setDriverName(String driverName) {
+        this.driverName = driverName;
+    }
+
+    public Instant getEstimatedDeliveryTime() {
+        return estimatedDeliveryTime;
+    }
+
+    public void setEstimatedDeliveryTime(Instant estimatedDeliveryTime) {
+        this.estimatedDeliveryTime = estimatedDeliveryTime;
+    }
+}
@@ -0,0 +1,40 @@
+package com.delivery.query.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Mirrors the order.created payload fields the read model keeps.
+ */
+public class OrderCreatedPayload {
+
+    private String customerId;
+    private BigDecimal totalAmount;
+    private String currency;
+
+    public OrderCreatedPayload() {
+    }
+
+    public String getCustomerId() {
+        return customerId;
+    }
+
+    public void setCustomerId(String customerId) {
+        this.customerId = customerId;
+    }
+
+    public BigDecimal getTotalAmount() {
+        return totalAmount;
+    }
+
+    public void setTotalAmount(BigDecimal totalAmount) {
+        this.totalAmount = totalAmount;
+    }
+
+    public String getCurrency() {
+        return currency;
+    }
+
+    public void setCurrency(String currency) {
+        this.currency = currency;
+    }
+}
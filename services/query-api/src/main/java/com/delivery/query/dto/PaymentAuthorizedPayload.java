@@ -0,0 +1,20 @@
+package com.delivery.query.dto;
+
+/**
+ * Mirrors the payment.authorized payload fields the read model keeps.
+ */
+public class PaymentAuthorizedPayload {
+
+    private Long paymentId;
+
+    public PaymentAuthorizedPayload() {
+    }
+
+    public Long getPaymentId() {
+        return paymentId;
+    }
+
+    public void setPaymentId(Long paymentId) {
+        this.paymentId = paymentId;
+    }
+}
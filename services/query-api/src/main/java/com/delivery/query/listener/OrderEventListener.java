@@ -1,10 +1,13 @@
 package com.delivery.query.listener;
 
+import com.delivery.common.codec.EventCodecs;
+import com.delivery.common.codec.LazyEnvelope;
 import com.delivery.common.event.EventTypes;
 import com.delivery.common.event.Topics;
+import com.delivery.query.dto.DeliveryEventPayload;
+import com.delivery.query.dto.OrderCreatedPayload;
+import com.delivery.query.dto.PaymentAuthorizedPayload;
 import com.delivery.query.service.OrderViewService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
@@ -12,18 +15,20 @@ import org.springframework.stereotype.Component;
 
 /**
  * Consumes events from ALL domain topics and delegates to OrderViewService
- * to materialize the CQRS read model in Cassandra.
+ * to materialize the CQRS read model in Cassandra. Status-only events are
+ * routed on the envelope headers; the payload is bound to its mirror class
+ * only for the handlers that read it.
  */
 @Component
 public class OrderEventListener {
 
     private static final Logger log = LoggerFactory.getLogger(OrderEventListener.class);
 
-    private final ObjectMapper objectMapper;
+    private final EventCodecs eventCodecs;
     private final OrderViewService orderViewService;
 
-    public OrderEventListener(ObjectMapper objectMapper, OrderViewService orderViewService) {
-        this.objectMapper = objectMapper;
+    public OrderEventListener(EventCodecs eventCodecs, OrderViewService orderViewService) {
+        this.eventCodecs = eventCodecs;
         this.orderViewService = orderViewService;
     }
 
@@ -34,19 +39,19 @@ public class OrderEventListener {
                     Topics.PAYMENT_EVENTS,
                     Topics.DELIVERY_EVENTS
             },
-            groupId = "${spring.kafka.consumer.group-id}")
-    public void handleEvent(String message) {
+            groupId = "${spring.kafka.consumer.group-id}",
+            filter = "readModelEventFilter")
+    public void handleEvent(byte[] message) {
         try {
-            JsonNode eventNode = objectMapper.readTree(message);
-            String eventType = eventNode.get("eventType").asText();
-            String orderId = eventNode.get("orderId").asText();
-            JsonNode payload = eventNode.get("payload");
+            LazyEnvelope event = eventCodecs.read(message);
+            String eventType = event.getEventType();
+            String orderId = event.getOrderId();
 
             log.info("Query API received event: type={}, orderId={}", eventType, orderId);
 
             switch (eventType) {
                 case EventTypes.ORDER_CREATED:
-                    orderViewService.handleOrderCreated(orderId, payload);
+                    orderViewService.handleOrderCreated(orderId, event.payload(OrderCreatedPayload.class));
                     break;
                 case EventTypes.INVENTORY_RESERVED:
                     orderViewService.handleInventoryReserved(orderId);
@@ -55,16 +60,16 @@ public class OrderEventListener {
                     orderViewService.handleInventoryRejected(orderId);
                     break;
                 case EventTypes.PAYMENT_AUTHORIZED:
-                    orderViewService.handlePaymentAuthorized(orderId, payload);
+                    orderViewService.handlePaymentAuthorized(orderId, event.payload(PaymentAuthorizedPayload.class));
                     break;
                 case EventTypes.PAYMENT_FAILED:
                     orderViewService.handlePaymentFailed(orderId);
                     break;
                 case EventTypes.DELIVERY_ASSIGNED:
-                    orderViewService.handleDeliveryAssigned(orderId, payload);
+                    orderViewService.handleDeliveryAssigned(orderId, event.payload(DeliveryEventPayload.class));
                     break;
                 case EventTypes.ETA_UPDATED:
-                    orderViewService.handleEtaUpdated(orderId, payload);
+                    orderViewService.handleEtaUpdated(orderId, event.payload(DeliveryEventPayload.class));
                     break;
                 default:
                     log.warn("Ignoring unknown event type: {}", eventType);
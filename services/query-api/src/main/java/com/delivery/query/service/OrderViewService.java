@@ -1,13 +1,14 @@
 package com.delivery.query.service;
 
+import com.delivery.query.dto.DeliveryEventPayload;
+import com.delivery.query.dto.OrderCreatedPayload;
+import com.delivery.query.dto.PaymentAuthorizedPayload;
 import com.delivery.query.entity.OrderView;
 import com.delivery.query.repository.OrderViewRepository;
-import com.fasterxml.jackson.databind.JsonNode;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.List;
 import java.util.Optional;
@@ -28,12 +29,12 @@ public class OrderViewService {
         this.repository = repository;
     }
 
-    public void handleOrderCreated(String orderId, JsonNode payload) {
+    public void handleOrderCreated(String orderId, OrderCreatedPayload payload) {
         OrderView view = new OrderView();
         view.setOrderId(orderId);
-        view.setCustomerId(payload.get("customerId").asText());
-        view.setTotalAmount(new BigDecimal(payload.get("totalAmount").asText()));
-        view.setCurrency(payload.has("currency") ? payload.get("currency").asText() : "USD");
+        view.setCustomerId(payload.getCustomerId());
+        view.setTotalAmount(payload.getTotalAmount());
+        view.setCurrency(payload.getCurrency() != null ? payload.getCurrency() : "USD");
         view.setStatus("CREATED");
         view.setCreatedAt(Instant.now());
         view.setUpdatedAt(Instant.now());
@@ -50,12 +51,12 @@ public class OrderViewService {
         updateStatus(orderId, "INVENTORY_REJECTED");
     }
 
-    public void handlePaymentAuthorized(String orderId, JsonNode payload) {
+    public void handlePaymentAuthorized(String orderId, PaymentAuthorizedPayload payload) {
         OrderView view = findOrCreate(orderId);
         view.setStatus("PAYMENT_AUTHORIZED");
         view.setUpdatedAt(Instant.now());
-        if (payload.has("paymentId") && !payload.get("paymentId").isNull()) {
-            view.setPaymentId(payload.get("paymentId").asLong());
+        if (payload.getPaymentId() != null) {
+            view.setPaymentId(payload.getPaymentId());
         }
         repository.save(view);
         log.info("OrderView updated to PAYMENT_AUTHORIZED for orderId={}", orderId);
@@ -65,28 +66,28 @@ public class OrderViewService {
         updateStatus(orderId, "PAYMENT_FAILED");
     }
 
-    public void handleDeliveryAssigned(String orderId, JsonNode payload) {
+    public void handleDeliveryAssigned(String orderId, DeliveryEventPayload payload) {
         OrderView view = findOrCreate(orderId);
         view.setStatus("DELIVERY_ASSIGNED");
         view.setUpdatedAt(Instant.now());
-        if (payload.has("deliveryId")) {
-            view.setDeliveryId(payload.get("deliveryId").asText());
+        if (payload.getDeliveryId() != null) {
+            view.setDeliveryId(payload.getDeliveryId());
         }
-        if (payload.has("driverName")) {
-            view.setDriverName(payload.get("driverName").asText());
+        if (payload.getDriverName() != null) {
+            view.setDriverName(payload.getDriverName());
         }
-        if (payload.has("estimatedDeliveryTime") && !payload.get("estimatedDeliveryTime").isNull()) {
-            view.setEstimatedDeliveryTime(Instant.parse(payload.get("estimatedDeliveryTime").asText()));
+        if (payload.getEstimatedDeliveryTime() != null) {
+            view.setEstimatedDeliveryTime(payload.getEstimatedDeliveryTime());
         }
         repository.save(view);
         log.info("OrderView updated to DELIVERY_ASSIGNED for orderId={}", orderId);
     }
 
-    public void handleEtaUpdated(String orderId, JsonNode payload) {
+    public void handleEtaUpdated(String orderId, DeliveryEventPayload payload) {
         OrderView view = findOrCreate(orderId);
         view.setUpdatedAt(Instant.now());
-        if (payload.has("estimatedDeliveryTime") && !payload.get("estimatedDeliveryTime").isNull()) {
-            view.setEstimatedDeliveryTime(Instant.parse(payload.get("estimatedDeliveryTime").asText()));
+        if (payload.getEstimatedDeliveryTime() != null) {
+            view.setEstimatedDeliveryTime(payload.getEstimatedDeliveryTime());
         }
         repository.save(view);
         log.info("OrderView ETA updated for orderId={}", orderId);